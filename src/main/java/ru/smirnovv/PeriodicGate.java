@@ -0,0 +1,41 @@
+package ru.smirnovv;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free gate that lets at most one caller through per interval.
+ * Callers on a hot path check the gate to run periodic housekeeping inline;
+ * the caller that wins the race for the next opening time does the work,
+ * the others pass by without waiting.
+ */
+public final class PeriodicGate {
+    /**
+     * The interval in nanoseconds between the openings of the gate.
+     */
+    private final long intervalNanos;
+
+    /**
+     * The time in nanoseconds when the gate opens next.
+     */
+    private final AtomicLong nextNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * Constructs a gate that opens on the first check.
+     *
+     * @param intervalNanos the interval in nanoseconds between the openings of the gate.
+     */
+    public PeriodicGate(final long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Tries to pass the gate.
+     *
+     * @param nowNanos the current time in nanoseconds.
+     * @return true for the single caller that passed the open gate, false otherwise.
+     */
+    public boolean tryPass(final long nowNanos) {
+        final long next = nextNanos.get();
+        return nowNanos - next >= 0 && nextNanos.compareAndSet(next, nowNanos + intervalNanos);
+    }
+}
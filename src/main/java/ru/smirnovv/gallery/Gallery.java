@@ -0,0 +1,264 @@
+package ru.smirnovv.gallery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import ru.smirnovv.PeriodicGate;
+import ru.smirnovv.person.PersonRemovedEvent;
+import ru.smirnovv.person.PersonRepository;
+import ru.smirnovv.person.PersonSavedEvent;
+import ru.smirnovv.template.IrisCode;
+import ru.smirnovv.template.IrisTemplateRepository;
+import ru.smirnovv.template.IrisTemplate;
+import ru.smirnovv.template.TemplatesChangedEvent;
+import ru.smirnovv.template.TemplatesReencodedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A service that keeps the persons matched during identification in memory, partitioned by site.
+ * The partitions of hot sites are loaded on startup and kept all the time; the partitions of
+ * other sites are loaded by the first search and unloaded when nobody searched them for a while.
+ */
+@SuppressWarnings("designForExtension")
+@Service
+public class Gallery {
+    /**
+     * A repository that manages registered in the system persons.
+     */
+    private final PersonRepository personRepository;
+
+    /**
+     * A repository that manages the iris templates of persons.
+     */
+    private final IrisTemplateRepository templateRepository;
+
+    /**
+     * The keys of the sites kept in memory all the time.
+     */
+    private final Set<String> hotSites;
+
+    /**
+     * The time in nanoseconds after which the partition of a cold site is unloaded.
+     */
+    private final long idleNanos;
+
+    /**
+     * The partitions by site.
+     */
+    private final ConcurrentMap<String, SitePartition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * The gate that lets one search per idle timeout unload the idle partitions.
+     */
+    private final PeriodicGate eviction;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param personRepository   a repository that manages registered in the system persons.
+     * @param templateRepository a repository that manages the iris templates of persons.
+     * @param properties         the settings of the in-memory gallery.
+     */
+    @Autowired
+    public Gallery(final PersonRepository personRepository, final IrisTemplateRepository templateRepository,
+                   final GalleryProperties properties) {
+        Assert.notNull(personRepository, "Argument 'personRepository' can not be null");
+        Assert.notNull(templateRepository, "Argument 'templateRepository' can not be null");
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+
+        this.personRepository = personRepository;
+        this.templateRepository = templateRepository;
+        this.hotSites = new HashSet<>(properties.getHotSites());
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        this.eviction = new PeriodicGate(idleNanos);
+    }
+
+    /**
+     * Loads the partitions of the hot sites.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotSites() {
+        hotSites.forEach(this::partition);
+    }
+
+    /**
+     * Searches the persons registered at the sites.
+     * Only the partitions of these sites are loaded and scanned.
+     *
+     * @param sites  the keys of the sites.
+     * @param filter the condition the found persons satisfy.
+     * @return the found persons.
+     */
+    public List<GalleryEntry> search(final Collection<String> sites, final Predicate<GalleryEntry> filter) {
+        final List<GalleryEntry> found = new ArrayList<>();
+        for (final String site : new HashSet<>(sites)) {
+            for (final GalleryEntry entry : partition(site).entries()) {
+                if (filter.test(entry)) {
+                    found.add(entry);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the person registered at the site if the partition of the site is loaded.
+     * The lookup neither loads the partition nor keeps it from being evicted.
+     *
+     * @param site the key of the site.
+     * @param id   the id of the person.
+     * @return the found person.
+     * @throws GalleryEntryNotFoundException is thrown when the partition of the site is not loaded
+     *                                       or has no person with such id.
+     */
+    public GalleryEntry entry(final String site, final long id) throws GalleryEntryNotFoundException {
+        final SitePartition partition = partitions.get(site);
+        if (partition == null) {
+            throw new GalleryEntryNotFoundException("Site " + site + " is not loaded.");
+        }
+        final GalleryEntry entry = partition.entry(id);
+        if (entry == null) {
+            throw new GalleryEntryNotFoundException("Person " + id + " not found at site " + site + ".");
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the partitions kept in memory.
+     *
+     * @return the partitions kept in memory.
+     */
+    public Collection<SitePartition> partitions() {
+        return new ArrayList<>(partitions.values());
+    }
+
+    /**
+     * Returns the totals of the partitions kept in memory.
+     *
+     * @return the totals of the partitions kept in memory.
+     */
+    public GalleryFootprint footprint() {
+        long persons = 0;
+        long templates = 0;
+        long bytes = 0;
+        for (final SitePartition partition : partitions.values()) {
+            persons += partition.getSize();
+            templates += partition.getTemplateCount();
+            bytes += partition.getFootprint();
+        }
+        return new GalleryFootprint(partitions.size(), persons, templates, bytes);
+    }
+
+    /**
+     * Applies the added or updated person to the partition of its site if it is loaded.
+     *
+     * @param event the event about the saved person.
+     */
+    @TransactionalEventListener
+    public void onPersonSaved(final PersonSavedEvent event) {
+        final SitePartition partition = partitions.get(event.getPerson().getSite());
+        if (partition != null) {
+            partition.put(event.getPerson());
+        }
+    }
+
+    /**
+     * Removes the person from the partition of its site if it is loaded.
+     *
+     * @param event the event about the removed person.
+     */
+    @TransactionalEventListener
+    public void onPersonRemoved(final PersonRemovedEvent event) {
+        final SitePartition partition = partitions.get(event.getSite());
+        if (partition != null) {
+            partition.remove(event.getId());
+        }
+    }
+
+    /**
+     * Replaces the templates of the person in the partition of its site if it is loaded.
+     *
+     * @param event the event about the changed templates.
+     */
+    @TransactionalEventListener
+    public void onTemplatesChanged(final TemplatesChangedEvent event) {
+        final SitePartition partition = partitions.get(event.getSite());
+        if (partition != null) {
+            partition.putTemplates(event.getPersonId(), event.getTemplates());
+        }
+    }
+
+    /**
+     * Drops the templates of the previous versions of the encoding algorithm from the loaded partitions
+     * once all templates are re-encoded.
+     *
+     * @param event the event about the re-encoded templates.
+     */
+    @TransactionalEventListener
+    public void onTemplatesReencoded(final TemplatesReencodedEvent event) {
+        partitions.values().forEach(partition -> partition.retainTemplates(event.getAlgorithm()));
+    }
+
+    /**
+     * Returns the loaded partition of the site.
+     *
+     * @param site the key of the site.
+     * @return the loaded partition.
+     */
+    private SitePartition partition(final String site) {
+        evictIdle(System.nanoTime());
+
+        final SitePartition partition = partitions.computeIfAbsent(
+                site, key -> new SitePartition(key, hotSites.contains(key)));
+        partition.load(this::loadEntries);
+        return partition;
+    }
+
+    /**
+     * Loads the persons of the site with their templates.
+     *
+     * @param site the key of the site.
+     * @return the persons of the site.
+     */
+    private Collection<GalleryEntry> loadEntries(final String site) {
+        final Map<Long, List<IrisCode>> templates = templateRepository.findBySite(site).stream()
+                .collect(Collectors.groupingBy(template -> template.getPersonId(),
+                        Collectors.mapping(IrisTemplate::decode, Collectors.toList())));
+        return personRepository.findBySite(site).stream()
+                .map(person -> new GalleryEntry(person.getId(), person.getName(),
+                        templates.getOrDefault(person.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Unloads the partitions of cold sites nobody searched for the idle timeout.
+     * A search that is still in progress keeps the entries of an unloaded partition it already
+     * holds; the next search of the site loads the partition again from the database.
+     *
+     * @param now the current time in nanoseconds.
+     */
+    private void evictIdle(final long now) {
+        if (!eviction.tryPass(now)) {
+            return;
+        }
+        partitions.forEach((site, partition) -> {
+            if (partition.isIdle(now, idleNanos)) {
+                partitions.remove(site, partition);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package ru.smirnovv.gallery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.smirnovv.ErrorType;
+import ru.smirnovv.person.InvalidSiteException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.util.Assert.notNull;
+import static ru.smirnovv.person.PersonService.checkSite;
+
+/**
+ * A REST controller that serves the state of the in-memory gallery.
+ */
+@RestController
+@RequestMapping("/gallery")
+public class GalleryController {
+    /**
+     * A service that keeps the persons matched during identification in memory.
+     */
+    private final Gallery gallery;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param gallery a service that keeps the persons matched during identification in memory.
+     */
+    @Autowired
+    public GalleryController(final Gallery gallery) {
+        notNull(gallery, "Argument 'gallery' can not be null");
+
+        this.gallery = gallery;
+    }
+
+    /**
+     * Lists the partitions kept in memory.
+     *
+     * @return the partitions kept in memory.
+     */
+    @GetMapping
+    public final Collection<SitePartition> partitions() {
+        return gallery.partitions();
+    }
+
+    /**
+     * Returns the totals of the partitions kept in memory.
+     *
+     * @return the totals of the partitions kept in memory.
+     */
+    @GetMapping("/footprint")
+    public final GalleryFootprint footprint() {
+        return gallery.footprint();
+    }
+
+    /**
+     * Returns the person registered at the site with the number of its templates and its memory footprint
+     * if the partition of the site is loaded.
+     *
+     * @param site the key of the site.
+     * @param id   the id of the person.
+     * @return the found person.
+     */
+    @GetMapping("/{site}/{id}")
+    public final GalleryEntry entry(@PathVariable final String site, @PathVariable final long id) {
+        checkSite(site);
+        return gallery.entry(site, id);
+    }
+
+    /**
+     * Handles {@link InvalidSiteException} and returns the response with error information.
+     *
+     * @param request   the request where the exception was thrown.
+     * @param exception the thrown exception.
+     * @return a response entity with error details.
+     * @see ErrorType
+     */
+    @ExceptionHandler(InvalidSiteException.class)
+    public final ResponseEntity<ErrorType> handleInvalidSiteException(
+            final HttpServletRequest request, final InvalidSiteException exception) {
+        return new ResponseEntity<>(
+                new ErrorType(request.getRequestURI(), BAD_REQUEST.value(), exception.getMessage()),
+                BAD_REQUEST);
+    }
+}
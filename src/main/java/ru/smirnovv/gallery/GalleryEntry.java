@@ -0,0 +1,127 @@
+package ru.smirnovv.gallery;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ru.smirnovv.template.IrisCode;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A person kept in memory to be matched during identification.
+ */
+@SuppressWarnings("magicNumber")
+public final class GalleryEntry {
+    /**
+     * The id of the person.
+     */
+    private final long id;
+
+    /**
+     * The name of the person.
+     */
+    private final String name;
+
+    /**
+     * The iris templates of the person.
+     */
+    private final List<IrisCode> templates;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param id        the id of the person.
+     * @param name      the name of the person.
+     * @param templates the iris templates of the person.
+     */
+    GalleryEntry(final long id, final String name, final List<IrisCode> templates) {
+        this.id = id;
+        this.name = name;
+        this.templates = Collections.unmodifiableList(templates);
+    }
+
+    /**
+     * Returns the id of the person.
+     *
+     * @return the id of the person.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the person.
+     *
+     * @return the name of the person.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the iris templates of the person.
+     *
+     * @return the iris templates of the person.
+     */
+    @JsonIgnore
+    public List<IrisCode> getTemplates() {
+        return templates;
+    }
+
+    /**
+     * Returns the number of the iris templates of the person.
+     *
+     * @return the number of the iris templates of the person.
+     */
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the estimated number of bytes the entry occupies in memory,
+     * assuming a Java 8 64-bit JVM with compressed references and 12-byte object headers.
+     *
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        // the entry: a header, the id and two references
+        long bytes = 32;
+        // the name: the String with its hash and array reference, and the array of 2-byte chars
+        bytes += 24 + align(16 + 2L * name.length());
+        // the unmodifiable wrapper and the ArrayList of templates, and the array of references
+        bytes += 24 + 24 + align(16 + 4L * templates.size());
+        for (final IrisCode template : templates) {
+            bytes += template.getFootprint();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns a copy of the entry with another name.
+     *
+     * @param newName the name of the person.
+     * @return the copy of the entry.
+     */
+    GalleryEntry withName(final String newName) {
+        return new GalleryEntry(id, newName, templates);
+    }
+
+    /**
+     * Returns a copy of the entry with other templates.
+     *
+     * @param newTemplates the iris templates of the person.
+     * @return the copy of the entry.
+     */
+    GalleryEntry withTemplates(final List<IrisCode> newTemplates) {
+        return new GalleryEntry(id, name, newTemplates);
+    }
+
+    /**
+     * Aligns the size of an object to 8 bytes.
+     *
+     * @param bytes the size of the object.
+     * @return the aligned size.
+     */
+    private static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
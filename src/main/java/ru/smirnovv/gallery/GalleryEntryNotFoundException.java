@@ -0,0 +1,17 @@
+package ru.smirnovv.gallery;
+
+import ru.smirnovv.NotFoundException;
+
+/**
+ * This exception indicates that the requested person was not found in the gallery.
+ */
+public class GalleryEntryNotFoundException extends NotFoundException {
+    /**
+     * Constructs an instance with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public GalleryEntryNotFoundException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.smirnovv.gallery;
+
+/**
+ * The totals of the partitions kept in memory.
+ */
+public class GalleryFootprint {
+    /**
+     * The number of partitions.
+     */
+    private final int sites;
+
+    /**
+     * The number of persons.
+     */
+    private final long persons;
+
+    /**
+     * The number of templates.
+     */
+    private final long templates;
+
+    /**
+     * The estimated number of bytes the persons occupy in memory.
+     */
+    private final long bytes;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param sites     the number of partitions.
+     * @param persons   the number of persons.
+     * @param templates the number of templates.
+     * @param bytes     the estimated number of bytes the persons occupy in memory.
+     */
+    public GalleryFootprint(final int sites, final long persons, final long templates, final long bytes) {
+        this.sites = sites;
+        this.persons = persons;
+        this.templates = templates;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns the number of partitions.
+     *
+     * @return the number of partitions.
+     */
+    public final int getSites() {
+        return sites;
+    }
+
+    /**
+     * Returns the number of persons.
+     *
+     * @return the number of persons.
+     */
+    public final long getPersons() {
+        return persons;
+    }
+
+    /**
+     * Returns the number of templates.
+     *
+     * @return the number of templates.
+     */
+    public final long getTemplates() {
+        return templates;
+    }
+
+    /**
+     * Returns the estimated number of bytes the persons occupy in memory.
+     *
+     * @return the estimated number of bytes.
+     */
+    public final long getBytes() {
+        return bytes;
+    }
+}
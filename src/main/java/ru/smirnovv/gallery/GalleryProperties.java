@@ -0,0 +1,62 @@
+package ru.smirnovv.gallery;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The settings of the in-memory gallery.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+@ConfigurationProperties("iris.gallery")
+public class GalleryProperties {
+    /**
+     * The keys of the sites kept in memory all the time.
+     */
+    private List<String> hotSites = new ArrayList<>();
+
+    /**
+     * The time after which the partition of a site that is not hot is unloaded if nobody searched it.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Returns the keys of the sites kept in memory all the time.
+     *
+     * @return the keys of the sites kept in memory all the time.
+     */
+    public List<String> getHotSites() {
+        return hotSites;
+    }
+
+    /**
+     * Updates the keys of the sites kept in memory all the time.
+     *
+     * @param hotSites the keys of the sites kept in memory all the time.
+     */
+    public void setHotSites(final List<String> hotSites) {
+        this.hotSites = hotSites;
+    }
+
+    /**
+     * Returns the time after which the partition of a cold site is unloaded.
+     *
+     * @return the time after which the partition of a cold site is unloaded.
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Updates the time after which the partition of a cold site is unloaded.
+     *
+     * @param idleTimeout the time after which the partition of a cold site is unloaded.
+     */
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
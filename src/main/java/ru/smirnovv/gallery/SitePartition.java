@@ -0,0 +1,200 @@
+package ru.smirnovv.gallery;
+
+import ru.smirnovv.person.Person;
+import ru.smirnovv.template.IrisCode;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The persons of one site kept in memory.
+ * The partition is created empty and loaded by the first search; changes of the persons
+ * are applied only to a loaded partition, and wait for the load in progress to complete.
+ */
+public final class SitePartition {
+    /**
+     * The key of the site.
+     */
+    private final String site;
+
+    /**
+     * Whether the partition is kept in memory all the time.
+     */
+    private final boolean hot;
+
+    /**
+     * The persons of the site by id.
+     */
+    private final Map<Long, GalleryEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the persons of the site are loaded.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * The time in nanoseconds of the last search in the partition.
+     */
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    /**
+     * Constructs an empty partition.
+     *
+     * @param site the key of the site.
+     * @param hot  whether the partition is kept in memory all the time.
+     */
+    SitePartition(final String site, final boolean hot) {
+        this.site = site;
+        this.hot = hot;
+    }
+
+    /**
+     * Returns the key of the site.
+     *
+     * @return the key of the site.
+     */
+    public String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns whether the partition is kept in memory all the time.
+     *
+     * @return whether the partition is kept in memory all the time.
+     */
+    public boolean isHot() {
+        return hot;
+    }
+
+    /**
+     * Returns the number of persons in the partition.
+     *
+     * @return the number of persons in the partition.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of templates in the partition.
+     *
+     * @return the number of templates in the partition.
+     */
+    public long getTemplateCount() {
+        return entries.values().stream().mapToLong(GalleryEntry::getTemplateCount).sum();
+    }
+
+    /**
+     * Returns the estimated number of bytes the persons of the partition occupy in memory.
+     *
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        return entries.values().stream().mapToLong(GalleryEntry::getFootprint).sum();
+    }
+
+    /**
+     * Returns the person by id if it is in the partition.
+     *
+     * @param id the id of the person.
+     * @return the found person or null.
+     */
+    GalleryEntry entry(final long id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Loads the persons of the site unless they are already loaded.
+     *
+     * @param loader the loader of the persons of the site.
+     */
+    void load(final Function<String, Collection<GalleryEntry>> loader) {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                loader.apply(site).forEach(entry -> entries.put(entry.getId(), entry));
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Adds the person or updates its name if the partition is loaded.
+     *
+     * @param person the person.
+     */
+    synchronized void put(final Person person) {
+        if (loaded) {
+            entries.compute(person.getId(), (id, entry) -> {
+                if (entry == null) {
+                    return new GalleryEntry(id, person.getName(), Collections.emptyList());
+                }
+                return entry.withName(person.getName());
+            });
+        }
+    }
+
+    /**
+     * Replaces the templates of the person if the partition is loaded.
+     *
+     * @param id        the id of the person.
+     * @param templates the iris templates of the person.
+     */
+    synchronized void putTemplates(final long id, final List<IrisCode> templates) {
+        if (loaded) {
+            entries.computeIfPresent(id, (key, entry) -> entry.withTemplates(templates));
+        }
+    }
+
+    /**
+     * Keeps only the templates produced by the version of the encoding algorithm if the partition is loaded.
+     *
+     * @param algorithm the version of the encoding algorithm.
+     */
+    synchronized void retainTemplates(final int algorithm) {
+        if (loaded) {
+            entries.replaceAll((id, entry) -> entry.withTemplates(entry.getTemplates().stream()
+                    .filter(template -> template.getAlgorithm() == algorithm)
+                    .collect(Collectors.toList())));
+        }
+    }
+
+    /**
+     * Removes the person if the partition is loaded.
+     *
+     * @param id the id of the person.
+     */
+    synchronized void remove(final long id) {
+        if (loaded) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * Returns the persons of the site.
+     *
+     * @return the persons of the site.
+     */
+    Collection<GalleryEntry> entries() {
+        lastAccessNanos = System.nanoTime();
+        return entries.values();
+    }
+
+    /**
+     * Checks whether the partition may be unloaded.
+     *
+     * @param nowNanos  the current time in nanoseconds.
+     * @param idleNanos the idle time in nanoseconds.
+     * @return true if the partition is not hot and nobody searched it for the idle time.
+     */
+    boolean isIdle(final long nowNanos, final long idleNanos) {
+        return !hot && nowNanos - lastAccessNanos >= idleNanos;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package containing classes that keep the persons matched during identification in memory.
+ */
+package ru.smirnovv.gallery;
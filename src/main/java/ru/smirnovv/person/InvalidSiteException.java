@@ -0,0 +1,17 @@
+package ru.smirnovv.person;
+
+/**
+ * This exception indicates that the site key does not conform to the naming syntax.
+ * The key must contain lowercase Latin characters, numbers, '-', '_',
+ * no longer than 50 characters and not empty.
+ */
+public class InvalidSiteException extends RuntimeException {
+    /**
+     * Constructs an instance with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public InvalidSiteException(final String message) {
+        super(message);
+    }
+}
@@ -3,9 +3,13 @@ package ru.smirnovv.person;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 
 /**
  * An entry that represents a registered in the system person.
@@ -13,6 +17,11 @@ import javax.validation.constraints.Size;
 @SuppressWarnings("magicNumber")
 @Entity
 public class Person {
+    /**
+     * The site the person is registered at when no site is specified.
+     */
+    public static final String DEFAULT_SITE = "default";
+
     /**
      * The id of the person.
      */
@@ -30,6 +39,29 @@ public class Person {
     @Pattern(regexp = "([A-Z][\\w .-]*)")
     private String name;
 
+    /**
+     * The key of the site the person is registered at.
+     * The persons are partitioned by site, so that the search at some sites
+     * touches only the persons of these sites.
+     * The key must contain lowercase Latin characters, numbers, '-', '_',
+     * no longer than 50 characters and not empty.
+     */
+    @NotEmpty
+    @Size(min = 1, max = 50)
+    @Pattern(regexp = "([a-z0-9_-]+)")
+    private String site;
+
+    /**
+     * The version of the person, incremented on every update.
+     */
+    @Version
+    private long version;
+
+    /**
+     * The time of the last modification of the person.
+     */
+    private Instant modified;
+
     /**
      * Constructs an instance.
      */
@@ -37,11 +69,22 @@ public class Person {
     }
 
     /**
-     * Constructs an instance with the specified properties.
+     * Constructs an instance registered at the default site.
      *
      * @param name the name of the person.
      */
     public Person(final String name) {
+        this(DEFAULT_SITE, name);
+    }
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param site the key of the site the person is registered at.
+     * @param name the name of the person.
+     */
+    public Person(final String site, final String name) {
+        this.site = site;
         this.name = name;
     }
 
@@ -63,6 +106,42 @@ public class Person {
         this.name = name;
     }
 
+    /**
+     * Returns the key of the site the person is registered at.
+     *
+     * @return the key of the site the person is registered at.
+     */
+    public final String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns the version of the person.
+     *
+     * @return the version of the person.
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the time of the last modification of the person.
+     *
+     * @return the time of the last modification of the person.
+     */
+    public final Instant getModified() {
+        return modified;
+    }
+
+    /**
+     * Updates the time of the last modification before the person is saved.
+     */
+    @PrePersist
+    @PreUpdate
+    final void touch() {
+        modified = Instant.now();
+    }
+
     /**
      * Returns the id of the person.
      *
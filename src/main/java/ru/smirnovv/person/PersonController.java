@@ -4,8 +4,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,13 +17,17 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.smirnovv.ErrorType;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.util.Assert.notNull;
 import static ru.smirnovv.person.PersonService.checkName;
+import static ru.smirnovv.person.PersonService.checkSite;
 
 /**
  * A REST controller that serves registered in the system persons.
@@ -47,37 +53,86 @@ public class PersonController {
     }
 
     /**
-     * Lists all persons registered in the system.
+     * Lists persons registered at the sites or, if no site is specified, in the whole system.
+     * A request with If-None-Match is answered with 304 from the version metadata of the page
+     * without loading the persons. The page has no Last-Modified date, since removing a person
+     * changes the page without changing the modification time of any person left on it.
      *
+     * @param sites    the keys of the sites.
      * @param pageable a paging information.
-     * @return the page of retrieved persons.
+     * @param request  the request that may be conditional.
+     * @return the page of retrieved persons or null if the page was not modified.
      */
     @GetMapping
-    public final Page<Person> list(@PageableDefault(sort = "id") final Pageable pageable) {
-        return personService.list(pageable);
+    public final ResponseEntity<Page<Person>> list(
+            @RequestParam(name = "site", required = false) final Set<String> sites,
+            @PageableDefault(sort = "id") final Pageable pageable, final WebRequest request) {
+        final boolean allSites = sites == null || sites.isEmpty();
+        if (!allSites) {
+            sites.forEach(PersonService::checkSite);
+        }
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            final Page<PersonVersion> versions;
+            if (allSites) {
+                versions = personService.listVersions(pageable);
+            } else {
+                versions = personService.listVersions(sites, pageable);
+            }
+            if (request.checkNotModified(eTag(versions))) {
+                return null;
+            }
+        }
+
+        final Page<Person> persons;
+        if (allSites) {
+            persons = personService.list(pageable);
+        } else {
+            persons = personService.list(sites, pageable);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag(persons.map(PersonVersion::new)))
+                .body(persons);
     }
 
     /**
      * Adds a new person.
      *
+     * @param site the key of the site the person is registered at.
      * @param name the name of the person.
      * @return the added person.
      */
     @PutMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
-    public final Person add(@RequestParam final String name) {
+    public final Person add(@RequestParam(defaultValue = Person.DEFAULT_SITE) final String site,
+                            @RequestParam final String name) {
+        checkSite(site);
         checkName(name);
-        return personService.add(name);
+        return personService.add(site, name);
     }
 
     /**
      * Returns the person by id if it exists.
+     * A conditional request is answered with 304 from the version metadata of the person
+     * without loading the person.
      *
-     * @param id the id of the person.
-     * @return the found person.
+     * @param id      the id of the person.
+     * @param request the request that may be conditional.
+     * @return the found person or null if the person was not modified.
      */
     @GetMapping("/{id}")
-    public final Person getPersonById(@PathVariable final long id) {
-        return personService.getPersonById(id);
+    public final ResponseEntity<Person> getPersonById(@PathVariable final long id, final WebRequest request) {
+        if (isConditional(request)) {
+            final PersonVersion version = personService.getVersionById(id);
+            if (request.checkNotModified(eTag(version), version.getModified().toEpochMilli())) {
+                return null;
+            }
+        }
+
+        final Person person = personService.getPersonById(id);
+        return ResponseEntity.ok()
+                .eTag(eTag(new PersonVersion(person)))
+                .lastModified(person.getModified().toEpochMilli())
+                .body(person);
     }
 
     /**
@@ -103,6 +158,41 @@ public class PersonController {
         personService.remove(id);
     }
 
+    /**
+     * Checks whether the request has the conditions on the version of the resource.
+     *
+     * @param request the request.
+     * @return true if the request has If-None-Match or If-Modified-Since header.
+     */
+    private static boolean isConditional(final WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Returns the weak entity tag of the person. The tag is weak since it identifies the version of
+     * the person rather than the exact bytes of the response, which differ when the response is compressed.
+     *
+     * @param version the version metadata of the person.
+     * @return the entity tag.
+     */
+    private static String eTag(final PersonVersion version) {
+        return "W/\"" + version.getVersion() + "\"";
+    }
+
+    /**
+     * Returns the weak entity tag of the page that changes when a person is added to or removed from
+     * the page, or any person of the page is updated.
+     *
+     * @param page the page of the version metadata of persons.
+     * @return the entity tag.
+     */
+    private static String eTag(final Page<PersonVersion> page) {
+        final StringBuilder versions = new StringBuilder().append(page.getTotalElements());
+        page.forEach(version -> versions.append(',').append(version.getId()).append(':').append(version.getVersion()));
+        return "W/\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     /**
      * Handles {@link InvalidNameException} and returns the response with error information.
      *
@@ -118,4 +208,20 @@ public class PersonController {
                 new ErrorType(request.getRequestURI(), BAD_REQUEST.value(), exception.getMessage()),
                 BAD_REQUEST);
     }
+
+    /**
+     * Handles {@link InvalidSiteException} and returns the response with error information.
+     *
+     * @param request   the request where the exception was thrown.
+     * @param exception the thrown exception.
+     * @return a response entity with error details.
+     * @see ErrorType
+     */
+    @ExceptionHandler(InvalidSiteException.class)
+    public final ResponseEntity<ErrorType> handleInvalidSiteException(
+            final HttpServletRequest request, final InvalidSiteException exception) {
+        return new ResponseEntity<>(
+                new ErrorType(request.getRequestURI(), BAD_REQUEST.value(), exception.getMessage()),
+                BAD_REQUEST);
+    }
 }
@@ -0,0 +1,45 @@
+package ru.smirnovv.person;
+
+/**
+ * An event published when a person is removed.
+ */
+public class PersonRemovedEvent {
+    /**
+     * The id of the removed person.
+     */
+    private final long id;
+
+    /**
+     * The key of the site the removed person was registered at.
+     */
+    private final String site;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param id   the id of the removed person.
+     * @param site the key of the site the removed person was registered at.
+     */
+    public PersonRemovedEvent(final long id, final String site) {
+        this.id = id;
+        this.site = site;
+    }
+
+    /**
+     * Returns the id of the removed person.
+     *
+     * @return the id of the removed person.
+     */
+    public final long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the key of the site the removed person was registered at.
+     *
+     * @return the key of the site the removed person was registered at.
+     */
+    public final String getSite() {
+        return site;
+    }
+}
@@ -1,9 +1,77 @@
 package ru.smirnovv.person;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * A repository that manages registered in the system persons.
  */
 public interface PersonRepository extends JpaRepository<Person, Long> {
+    /**
+     * Lists persons registered at the sites.
+     * Only the partitions of these sites are scanned.
+     *
+     * @param sites    the keys of the sites.
+     * @param pageable a paging information.
+     * @return the page of retrieved persons.
+     */
+    Page<Person> findBySiteIn(Collection<String> sites, Pageable pageable);
+
+    /**
+     * Lists all persons registered at the site.
+     *
+     * @param site the key of the site.
+     * @return the retrieved persons.
+     */
+    List<Person> findBySite(String site);
+
+    /**
+     * Returns the person by id if it exists and locks its row until the end of the transaction.
+     *
+     * @param id the id of the person.
+     * @return the found person.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Person p where p.id = :id")
+    Optional<Person> findForUpdateById(@Param("id") long id);
+
+    /**
+     * Returns the version metadata of the person by id if it exists.
+     *
+     * @param id the id of the person.
+     * @return the version metadata of the person.
+     */
+    @Query("select new ru.smirnovv.person.PersonVersion(p.id, p.version, p.modified) from Person p where p.id = :id")
+    Optional<PersonVersion> findVersionById(@Param("id") long id);
+
+    /**
+     * Lists the version metadata of all persons.
+     *
+     * @param pageable a paging information.
+     * @return the page of version metadata.
+     */
+    @Query(value = "select new ru.smirnovv.person.PersonVersion(p.id, p.version, p.modified) from Person p",
+            countQuery = "select count(p) from Person p")
+    Page<PersonVersion> findVersions(Pageable pageable);
+
+    /**
+     * Lists the version metadata of persons registered at the sites.
+     *
+     * @param sites    the keys of the sites.
+     * @param pageable a paging information.
+     * @return the page of version metadata.
+     */
+    @Query(value = "select new ru.smirnovv.person.PersonVersion(p.id, p.version, p.modified) from Person p "
+            + "where p.site in :sites",
+            countQuery = "select count(p) from Person p where p.site in :sites")
+    Page<PersonVersion> findVersionsBySiteIn(@Param("sites") Collection<String> sites, Pageable pageable);
 }
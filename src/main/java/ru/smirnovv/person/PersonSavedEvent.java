@@ -0,0 +1,29 @@
+package ru.smirnovv.person;
+
+/**
+ * An event published when a person is added or updated.
+ */
+public class PersonSavedEvent {
+    /**
+     * The saved person.
+     */
+    private final Person person;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param person the saved person.
+     */
+    public PersonSavedEvent(final Person person) {
+        this.person = person;
+    }
+
+    /**
+     * Returns the saved person.
+     *
+     * @return the saved person.
+     */
+    public final Person getPerson() {
+        return person;
+    }
+}
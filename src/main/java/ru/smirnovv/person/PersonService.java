@@ -1,12 +1,15 @@
 package ru.smirnovv.person;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
+
 /**
  * A service that manages registered in the system persons.
  */
@@ -18,15 +21,23 @@ public class PersonService {
      */
     private final PersonRepository personRepository;
 
+    /**
+     * A publisher of the events about changed persons.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Constructs an instance with injected dependencies.
      *
      * @param personRepository a repository that manages registered in the system persons.
+     * @param eventPublisher   a publisher of the events about changed persons.
      */
     @Autowired
-    public PersonService(final PersonRepository personRepository) {
+    public PersonService(final PersonRepository personRepository, final ApplicationEventPublisher eventPublisher) {
         Assert.notNull(personRepository, "Argument 'personRepository' can not be null");
+        Assert.notNull(eventPublisher, "Argument 'eventPublisher' can not be null");
         this.personRepository = personRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -46,6 +57,23 @@ public class PersonService {
         }
     }
 
+    /**
+     * Checks site key for validity.
+     *
+     * @param site the key of the site.
+     * @throws InvalidSiteException is thrown when a site key does not conform to the naming syntax.
+     */
+    public static void checkSite(final String site) {
+        if (site.isEmpty()) {
+            throw new InvalidSiteException("Invalid site! The site must not be empty!");
+        } else if (!site.matches("([a-z0-9_-]+)")) {
+            throw new InvalidSiteException("Invalid site! The site must contain lowercase Latin characters, "
+                    + "numbers, signs '-', '_'!");
+        } else if (site.length() > 50) {
+            throw new InvalidSiteException("Invalid site! The site must be no longer than 50 characters!");
+        }
+    }
+
     /**
      * Lists all persons registered in the system.
      *
@@ -58,7 +86,42 @@ public class PersonService {
     }
 
     /**
-     * Adds a new person.
+     * Lists persons registered at the sites.
+     *
+     * @param sites    the keys of the sites.
+     * @param pageable a paging information.
+     * @return the page of retrieved persons.
+     */
+    @Transactional(readOnly = true)
+    public Page<Person> list(final Collection<String> sites, final Pageable pageable) {
+        return personRepository.findBySiteIn(sites, pageable);
+    }
+
+    /**
+     * Lists the version metadata of all persons without loading the persons.
+     *
+     * @param pageable a paging information.
+     * @return the page of version metadata.
+     */
+    @Transactional(readOnly = true)
+    public Page<PersonVersion> listVersions(final Pageable pageable) {
+        return personRepository.findVersions(pageable);
+    }
+
+    /**
+     * Lists the version metadata of persons registered at the sites without loading the persons.
+     *
+     * @param sites    the keys of the sites.
+     * @param pageable a paging information.
+     * @return the page of version metadata.
+     */
+    @Transactional(readOnly = true)
+    public Page<PersonVersion> listVersions(final Collection<String> sites, final Pageable pageable) {
+        return personRepository.findVersionsBySiteIn(sites, pageable);
+    }
+
+    /**
+     * Adds a new person at the default site.
      *
      * @param name the name of the person.
      * @return the added person.
@@ -66,9 +129,26 @@ public class PersonService {
      */
     @Transactional
     public Person add(final String name) throws InvalidNameException {
+        return add(Person.DEFAULT_SITE, name);
+    }
+
+    /**
+     * Adds a new person at the site.
+     *
+     * @param site the key of the site the person is registered at.
+     * @param name the name of the person.
+     * @return the added person.
+     * @throws InvalidSiteException is thrown when a site key does not conform to the naming syntax.
+     * @throws InvalidNameException is thrown when a name does not conform to the naming syntax.
+     */
+    @Transactional
+    public Person add(final String site, final String name) throws InvalidSiteException, InvalidNameException {
+        checkSite(site);
         checkName(name);
 
-        return personRepository.save(new Person(name));
+        final Person person = personRepository.save(new Person(site, name));
+        eventPublisher.publishEvent(new PersonSavedEvent(person));
+        return person;
     }
 
     /**
@@ -84,6 +164,32 @@ public class PersonService {
                 () -> new PersonNotFoundException("Person " + id + " not found."));
     }
 
+    /**
+     * Returns the person by id if it exists and locks it until the end of the current transaction.
+     *
+     * @param id the id of the person.
+     * @return the found person.
+     * @throws PersonNotFoundException is thrown when a person with such id does not exist.
+     */
+    @Transactional
+    public Person lockPersonById(final long id) throws PersonNotFoundException {
+        return personRepository.findForUpdateById(id).orElseThrow(
+                () -> new PersonNotFoundException("Person " + id + " not found."));
+    }
+
+    /**
+     * Returns the version metadata of the person by id without loading the person.
+     *
+     * @param id the id of the person.
+     * @return the version metadata of the person.
+     * @throws PersonNotFoundException is thrown when a person with such id does not exist.
+     */
+    @Transactional(readOnly = true)
+    public PersonVersion getVersionById(final long id) throws PersonNotFoundException {
+        return personRepository.findVersionById(id).orElseThrow(
+                () -> new PersonNotFoundException("Person " + id + " not found."));
+    }
+
     /**
      * Updates name of the person by id if name passed the verification.
      *
@@ -99,16 +205,21 @@ public class PersonService {
 
         final Person person = getPersonById(id);
         person.setName(name);
-        return personRepository.save(person);
+        final Person saved = personRepository.save(person);
+        eventPublisher.publishEvent(new PersonSavedEvent(saved));
+        return saved;
     }
 
     /**
      * Removes the person by id if it exists.
      *
      * @param id the id of the person.
+     * @throws PersonNotFoundException is thrown when a person with such id does not exist.
      */
     @Transactional
-    public void remove(final long id) {
-        personRepository.deleteById(id);
+    public void remove(final long id) throws PersonNotFoundException {
+        final Person person = getPersonById(id);
+        personRepository.delete(person);
+        eventPublisher.publishEvent(new PersonRemovedEvent(id, person.getSite()));
     }
 }
@@ -0,0 +1,72 @@
+package ru.smirnovv.person;
+
+import java.time.Instant;
+
+/**
+ * The version metadata of a person, read without loading the person.
+ */
+public class PersonVersion {
+    /**
+     * The id of the person.
+     */
+    private final long id;
+
+    /**
+     * The version of the person.
+     */
+    private final long version;
+
+    /**
+     * The time of the last modification of the person.
+     */
+    private final Instant modified;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param id       the id of the person.
+     * @param version  the version of the person.
+     * @param modified the time of the last modification of the person.
+     */
+    public PersonVersion(final long id, final long version, final Instant modified) {
+        this.id = id;
+        this.version = version;
+        this.modified = modified;
+    }
+
+    /**
+     * Constructs an instance from the loaded person.
+     *
+     * @param person the person.
+     */
+    public PersonVersion(final Person person) {
+        this(person.getId(), person.getVersion(), person.getModified());
+    }
+
+    /**
+     * Returns the id of the person.
+     *
+     * @return the id of the person.
+     */
+    public final long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the version of the person.
+     *
+     * @return the version of the person.
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the time of the last modification of the person.
+     *
+     * @return the time of the last modification of the person.
+     */
+    public final Instant getModified() {
+        return modified;
+    }
+}
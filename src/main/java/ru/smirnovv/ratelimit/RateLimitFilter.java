@@ -0,0 +1,99 @@
+package ru.smirnovv.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.smirnovv.ErrorType;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * A filter that rejects the requests of clients exceeding their rate limit
+ * before the requests reach the controllers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+    /**
+     * A service that limits the rate of requests per client.
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * The settings of the per-client rate limits.
+     */
+    private final RateLimitProperties properties;
+
+    /**
+     * A mapper that writes the error information.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param rateLimiter  a service that limits the rate of requests per client.
+     * @param properties   the settings of the per-client rate limits.
+     * @param objectMapper a mapper that writes the error information.
+     */
+    @Autowired
+    public RateLimitFilter(final RateLimiter rateLimiter, final RateLimitProperties properties,
+                           final ObjectMapper objectMapper) {
+        Assert.notNull(rateLimiter, "Argument 'rateLimiter' can not be null");
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+        Assert.notNull(objectMapper, "Argument 'objectMapper' can not be null");
+
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected final boolean shouldNotFilter(final HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected final void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                          final FilterChain filterChain) throws ServletException, IOException {
+        final long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorType(request.getRequestURI(),
+                TOO_MANY_REQUESTS.value(), "Rate limit exceeded! Retry after " + retryAfter + " seconds."));
+    }
+
+    /**
+     * Returns the key of the client that sent the request.
+     *
+     * @param request the request.
+     * @return the API key of the client if it is one of the issued keys, otherwise the remote address.
+     */
+    private String clientOf(final HttpServletRequest request) {
+        final String apiKey = request.getHeader(properties.getApiKeyHeader());
+        if (apiKey != null && properties.getApiKeys().contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,178 @@
+package ru.smirnovv.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The settings of the per-client rate limits.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+@ConfigurationProperties("iris.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Whether the rate limits are applied.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of requests a client may burst.
+     */
+    private long capacity = 100;
+
+    /**
+     * The number of requests per second a client may sustain.
+     */
+    private long refillPerSecond = 50;
+
+    /**
+     * The time after which the bucket of an inactive client is evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * The maximum number of clients tracked at once; the other clients share one bucket.
+     */
+    private int maxClients = 10000;
+
+    /**
+     * The request header that carries the API key of the client.
+     * The remote address identifies the client when the header is absent or carries an unknown key.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * The API keys issued to the clients.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Returns whether the rate limits are applied.
+     *
+     * @return whether the rate limits are applied.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Updates whether the rate limits are applied.
+     *
+     * @param enabled whether the rate limits are applied.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the maximum number of requests a client may burst.
+     *
+     * @return the maximum number of requests a client may burst.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Updates the maximum number of requests a client may burst.
+     *
+     * @param capacity the maximum number of requests a client may burst.
+     */
+    public void setCapacity(final long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of requests per second a client may sustain.
+     *
+     * @return the number of requests per second a client may sustain.
+     */
+    public long getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    /**
+     * Updates the number of requests per second a client may sustain.
+     *
+     * @param refillPerSecond the number of requests per second a client may sustain.
+     */
+    public void setRefillPerSecond(final long refillPerSecond) {
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    /**
+     * Returns the time after which the bucket of an inactive client is evicted.
+     *
+     * @return the time after which the bucket of an inactive client is evicted.
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Updates the time after which the bucket of an inactive client is evicted.
+     *
+     * @param idleTimeout the time after which the bucket of an inactive client is evicted.
+     */
+    public void setIdleTimeout(final Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the maximum number of clients tracked at once.
+     *
+     * @return the maximum number of clients tracked at once.
+     */
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    /**
+     * Updates the maximum number of clients tracked at once.
+     *
+     * @param maxClients the maximum number of clients tracked at once.
+     */
+    public void setMaxClients(final int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Returns the request header that carries the API key of the client.
+     *
+     * @return the request header that carries the API key of the client.
+     */
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    /**
+     * Updates the request header that carries the API key of the client.
+     *
+     * @param apiKeyHeader the request header that carries the API key of the client.
+     */
+    public void setApiKeyHeader(final String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    /**
+     * Returns the API keys issued to the clients.
+     *
+     * @return the API keys issued to the clients.
+     */
+    public Set<String> getApiKeys() {
+        return apiKeys;
+    }
+
+    /**
+     * Updates the API keys issued to the clients.
+     *
+     * @param apiKeys the API keys issued to the clients.
+     */
+    public void setApiKeys(final Set<String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.smirnovv.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import ru.smirnovv.PeriodicGate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service that limits the rate of requests per client with token buckets.
+ * The buckets are kept in a concurrent map and taken without locks; the buckets of
+ * inactive clients are evicted by the request that first notices the idle timeout expired.
+ * When the maximum number of clients is tracked, the new clients share one overflow bucket
+ * until the buckets of inactive clients are evicted.
+ */
+@SuppressWarnings("designForExtension")
+@Service
+public class RateLimiter {
+    /**
+     * The token buckets by client.
+     */
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of tokens in a bucket.
+     */
+    private final long capacity;
+
+    /**
+     * The time in nanoseconds needed to refill one token.
+     */
+    private final long refillNanos;
+
+    /**
+     * The time in nanoseconds after which the bucket of an inactive client is evicted.
+     */
+    private final long idleNanos;
+
+    /**
+     * The gate that lets one request per idle timeout evict the idle buckets.
+     */
+    private final PeriodicGate eviction;
+
+    /**
+     * The maximum number of clients tracked at once.
+     */
+    private final int maxClients;
+
+    /**
+     * The bucket shared by the clients that are not tracked.
+     */
+    private final TokenBucket overflow;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param properties the settings of the per-client rate limits.
+     */
+    @Autowired
+    public RateLimiter(final RateLimitProperties properties) {
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+        Assert.isTrue(properties.getCapacity() > 0, "Rate limit capacity must be positive");
+        Assert.isTrue(properties.getRefillPerSecond() > 0, "Rate limit refill must be positive");
+        Assert.isTrue(properties.getMaxClients() > 0, "Maximum number of rate limited clients must be positive");
+
+        this.capacity = properties.getCapacity();
+        this.refillNanos = TimeUnit.SECONDS.toNanos(1) / properties.getRefillPerSecond();
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        this.eviction = new PeriodicGate(idleNanos);
+        this.maxClients = properties.getMaxClients();
+        this.overflow = new TokenBucket(capacity, refillNanos, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the client if it is not empty.
+     *
+     * @param client the key of the client.
+     * @return zero if the request is allowed, otherwise the time in nanoseconds until the next token.
+     */
+    public long tryAcquire(final String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the client at the specified time.
+     *
+     * @param client the key of the client.
+     * @param now    the current time in nanoseconds.
+     * @return zero if the request is allowed, otherwise the time in nanoseconds until the next token.
+     */
+    long tryAcquire(final String client, final long now) {
+        evictIdle(now);
+
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                return overflow.tryConsume(now);
+            }
+            bucket = buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillNanos, now));
+        }
+        return bucket.tryConsume(now);
+    }
+
+    /**
+     * Returns the number of tracked clients.
+     *
+     * @return the number of tracked clients.
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Evicts the buckets that have been full for the idle timeout. The map is walked at most
+     * once per idle timeout, so the eviction costs nothing on most requests even under heavy traffic.
+     *
+     * @param now the current time in nanoseconds.
+     */
+    private void evictIdle(final long now) {
+        if (!eviction.tryPass(now)) {
+            return;
+        }
+        buckets.forEach((client, bucket) -> {
+            if (bucket.isIdle(now, idleNanos)) {
+                buckets.remove(client, bucket);
+            }
+        });
+    }
+}
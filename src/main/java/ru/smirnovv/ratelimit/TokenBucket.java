@@ -0,0 +1,70 @@
+package ru.smirnovv.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket of a single client.
+ * The bucket is stored as the theoretical arrival time of the next request,
+ * so taking a token is a single compare-and-set of one long value.
+ */
+final class TokenBucket {
+    /**
+     * The time in nanoseconds needed to refill one token.
+     */
+    private final long refillNanos;
+
+    /**
+     * The time in nanoseconds the bucket may run ahead of the clock, i.e. the burst capacity.
+     */
+    private final long burstNanos;
+
+    /**
+     * The theoretical arrival time of the next request in nanoseconds.
+     * The bucket is full when this time is not after the current time.
+     */
+    private final AtomicLong arrivalNanos;
+
+    /**
+     * Constructs a full bucket.
+     *
+     * @param capacity    the maximum number of tokens in the bucket.
+     * @param refillNanos the time in nanoseconds needed to refill one token.
+     * @param nowNanos    the current time in nanoseconds.
+     */
+    TokenBucket(final long capacity, final long refillNanos, final long nowNanos) {
+        this.refillNanos = refillNanos;
+        this.burstNanos = (capacity - 1) * refillNanos;
+        this.arrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token from the bucket if it is not empty.
+     *
+     * @param nowNanos the current time in nanoseconds.
+     * @return zero if the token was taken, otherwise the time in nanoseconds until the next token.
+     */
+    long tryConsume(final long nowNanos) {
+        while (true) {
+            final long arrival = arrivalNanos.get();
+            final long next = Math.max(arrival, nowNanos);
+            final long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivalNanos.compareAndSet(arrival, next + refillNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the bucket has been full for at least the specified time.
+     *
+     * @param nowNanos  the current time in nanoseconds.
+     * @param idleNanos the idle time in nanoseconds.
+     * @return true if nobody has taken a token from the bucket for the idle time.
+     */
+    boolean isIdle(final long nowNanos, final long idleNanos) {
+        return nowNanos - arrivalNanos.get() >= idleNanos;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package containing classes that limit the rate of requests per client.
+ */
+package ru.smirnovv.ratelimit;
@@ -0,0 +1,58 @@
+package ru.smirnovv.reencode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.util.Assert.notNull;
+
+/**
+ * A REST controller that serves the background re-encoding of templates.
+ */
+@RestController
+@RequestMapping("/template/reencode")
+public class ReencodeController {
+    /**
+     * A service that re-encodes the stored templates in the background.
+     */
+    private final ReencodeJob reencodeJob;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param reencodeJob a service that re-encodes the stored templates in the background.
+     */
+    @Autowired
+    public ReencodeController(final ReencodeJob reencodeJob) {
+        notNull(reencodeJob, "Argument 'reencodeJob' can not be null");
+
+        this.reencodeJob = reencodeJob;
+    }
+
+    /**
+     * Returns the progress of the re-encoding to the current version of the encoding algorithm.
+     *
+     * @return the progress of the re-encoding.
+     */
+    @GetMapping
+    public final ReencodeStatus status() {
+        return reencodeJob.status();
+    }
+
+    /**
+     * Starts or resumes the re-encoding unless it is in progress.
+     *
+     * @return the progress of the re-encoding with status 202 if it is started, or 200 if it is already in progress.
+     */
+    @PostMapping
+    public final ResponseEntity<ReencodeStatus> start() {
+        if (reencodeJob.start()) {
+            return new ResponseEntity<>(reencodeJob.status(), HttpStatus.ACCEPTED);
+        }
+        return ResponseEntity.ok(reencodeJob.status());
+    }
+}
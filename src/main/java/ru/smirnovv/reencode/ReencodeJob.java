@@ -0,0 +1,495 @@
+package ru.smirnovv.reencode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import ru.smirnovv.template.IrisCode;
+import ru.smirnovv.template.TemplateCodec;
+import ru.smirnovv.template.TemplateEncoder;
+import ru.smirnovv.template.TemplateProperties;
+import ru.smirnovv.template.TemplatesChangedEvent;
+import ru.smirnovv.template.TemplatesReencodedEvent;
+import ru.smirnovv.timing.LatencyMonitor;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * A service that re-encodes the stored templates of the previous versions of the encoding algorithm
+ * in the background. The persons are walked in chunks ordered by id; the templates of a chunk are
+ * re-encoded in parallel on a bounded pool and inserted in one batch together with the checkpoint,
+ * so that an interrupted job resumes after the last committed chunk. Each chunk is processed in a
+ * transaction that locks the row of the job and the persons of the chunk, so that the instances
+ * sharing the database and the concurrent enrollments do not store extra templates. The walked
+ * templates are marked, and the templates of the previous versions are kept until all persons are
+ * walked, so that every person stays matchable meanwhile. Then the persons that still have them are
+ * walked again: the templates stored after their persons were walked are re-encoded, and the templates
+ * of the previous versions are removed. The job pauses while the average latency of requests is above
+ * the threshold.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Service
+public class ReencodeJob {
+    /**
+     * The log of the re-encoding progress.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ReencodeJob.class);
+
+    /**
+     * The statement inserting a re-encoded template unless its person was removed meanwhile
+     * or already has the maximum number of templates of the current version.
+     */
+    private static final String INSERT_TEMPLATE = "insert into IRIS_TEMPLATE "
+            + "(ID, PERSON_ID, SITE, QUALITY, DATA, ALGORITHM) "
+            + "select nextval('hibernate_sequence'), ?, ?, ?, ?, ? "
+            + "where exists (select 1 from PERSON where ID = ? and SITE = ?) "
+            + "and (select count(*) from IRIS_TEMPLATE where PERSON_ID = ? and SITE = ? and ALGORITHM = ?) < ?";
+
+    /**
+     * A template for JDBC operations.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A template for transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The encoder of the current version of the encoding algorithm.
+     */
+    private final TemplateEncoder encoder;
+
+    /**
+     * A monitor of the recent latency of requests.
+     */
+    private final LatencyMonitor latencyMonitor;
+
+    /**
+     * A publisher of the events about re-encoded templates.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The settings of the background re-encoding of templates.
+     */
+    private final ReencodeProperties properties;
+
+    /**
+     * The maximum number of templates kept per person.
+     */
+    private final int maxPerPerson;
+
+    /**
+     * The thread walking the persons.
+     */
+    private final ExecutorService runner;
+
+    /**
+     * The threads re-encoding the templates of a chunk.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Whether the re-encoding is in progress.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param jdbcTemplate        a template for JDBC operations.
+     * @param transactionTemplate a template for transactions.
+     * @param encoder             the encoder of the current version of the encoding algorithm.
+     * @param latencyMonitor      a monitor of the recent latency of requests.
+     * @param eventPublisher      a publisher of the events about re-encoded templates.
+     * @param properties          the settings of the background re-encoding of templates.
+     * @param templateProperties  the settings of the iris templates.
+     */
+    @Autowired
+    public ReencodeJob(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate,
+                       final TemplateEncoder encoder, final LatencyMonitor latencyMonitor,
+                       final ApplicationEventPublisher eventPublisher, final ReencodeProperties properties,
+                       final TemplateProperties templateProperties) {
+        Assert.notNull(jdbcTemplate, "Argument 'jdbcTemplate' can not be null");
+        Assert.notNull(transactionTemplate, "Argument 'transactionTemplate' can not be null");
+        Assert.notNull(encoder, "Argument 'encoder' can not be null");
+        Assert.notNull(latencyMonitor, "Argument 'latencyMonitor' can not be null");
+        Assert.notNull(eventPublisher, "Argument 'eventPublisher' can not be null");
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+        Assert.notNull(templateProperties, "Argument 'templateProperties' can not be null");
+        Assert.isTrue(properties.getChunkSize() > 0, "Re-encoding chunk size must be positive");
+        Assert.isTrue(properties.getParallelism() > 0, "Re-encoding parallelism must be positive");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.encoder = encoder;
+        this.latencyMonitor = latencyMonitor;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.maxPerPerson = templateProperties.getMaxPerPerson();
+        this.runner = Executors.newSingleThreadExecutor(daemonThreads("reencode-"));
+        this.workers = Executors.newFixedThreadPool(properties.getParallelism(), daemonThreads("reencode-worker-"));
+    }
+
+    /**
+     * Starts or resumes the re-encoding on startup if it is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if (properties.isEnabled()) {
+            start();
+        }
+    }
+
+    /**
+     * Starts or resumes the re-encoding in the background unless it is in progress.
+     *
+     * @return true if the re-encoding is started, false if it is already in progress.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        runner.execute(() -> {
+            try {
+                run(encoder.getAlgorithm());
+            } catch (InterruptedException e) {
+                LOG.info("Re-encoding of templates interrupted, it resumes from the last checkpoint");
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOG.error("Re-encoding of templates failed, it resumes from the last checkpoint", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Returns the progress of the re-encoding to the current version of the encoding algorithm.
+     * The re-encoding is reported finished when no templates of the previous versions are stored,
+     * even if it was never started. The pending templates are counted by the index on the version,
+     * so that only the templates of the previous versions are read.
+     *
+     * @return the progress of the re-encoding.
+     */
+    public ReencodeStatus status() {
+        final int algorithm = encoder.getAlgorithm();
+        final List<ReencodeStatus> found = jdbcTemplate.query(
+                "select P.PENDING, J.LAST_PERSON_ID, J.PROCESSED, "
+                        + "coalesce(J.FINISHED, false) or P.PENDING = 0 as FINISHED "
+                        + "from (select count(*) as PENDING from IRIS_TEMPLATE where ALGORITHM < ?) P "
+                        + "left join REENCODE_JOB J on J.ALGORITHM = ?",
+                (rs, row) -> new ReencodeStatus(algorithm, rs.getLong("LAST_PERSON_ID"), rs.getLong("PROCESSED"),
+                        rs.getLong("PENDING"), rs.getBoolean("FINISHED"), running.get()),
+                algorithm, algorithm);
+        return found.get(0);
+    }
+
+    /**
+     * Stops the threads of the re-encoding; the job resumes from the last checkpoint on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Walks the persons after the checkpoint, then replaces the templates of the previous versions
+     * of the persons that still have them.
+     *
+     * @param algorithm the version of the encoding algorithm the templates are re-encoded to.
+     * @throws InterruptedException is thrown when the job is stopped.
+     */
+    private void run(final int algorithm) throws InterruptedException {
+        final ReencodeStatus status = status();
+        if (status.isFinished()) {
+            return;
+        }
+        jdbcTemplate.update("insert into REENCODE_JOB (ALGORITHM, LAST_PERSON_ID, PROCESSED, FINISHED, UPDATED) "
+                + "values (?, 0, 0, false, now()) on conflict do nothing", algorithm);
+        LOG.info("Re-encoding {} templates to algorithm {} after person {}",
+                status.getPending(), algorithm, status.getLastPersonId());
+
+        while (claimChunk(algorithm, "LAST_PERSON_ID", lastPersonId -> walkChunk(algorithm, lastPersonId))) {
+            throttle();
+        }
+        while (claimChunk(algorithm, "REPLACED_PERSON_ID",
+                replacedPersonId -> replaceChunk(algorithm, replacedPersonId))) {
+            throttle();
+        }
+
+        transactionTemplate.execute(transaction -> {
+            jdbcTemplate.update("update REENCODE_JOB set FINISHED = true, UPDATED = now() where ALGORITHM = ?",
+                    algorithm);
+            eventPublisher.publishEvent(new TemplatesReencodedEvent(algorithm));
+            return null;
+        });
+        LOG.info("Re-encoding of templates to algorithm {} finished", algorithm);
+    }
+
+    /**
+     * Processes the next chunk in a transaction that claims the job by locking its row, so that
+     * the instances sharing the database process the chunks one at a time. Waits while the job
+     * is claimed by another instance.
+     *
+     * @param algorithm the version of the encoding algorithm the templates are re-encoded to.
+     * @param cursor    the column of the job holding the id of the last person of the pass.
+     * @param chunk     the processing of the chunk that accepts the id of the last person of the pass.
+     * @return true if the chunk is processed, false if there are no chunks left.
+     * @throws InterruptedException is thrown when the job is stopped.
+     */
+    private boolean claimChunk(final int algorithm, final String cursor, final LongPredicate chunk)
+            throws InterruptedException {
+        while (true) {
+            final Boolean processed = transactionTemplate.execute(transaction -> {
+                final List<Long> checkpoint = jdbcTemplate.queryForList(
+                        "select " + cursor + " from REENCODE_JOB where ALGORITHM = ? for update skip locked",
+                        Long.class, algorithm);
+                if (checkpoint.isEmpty()) {
+                    return null;
+                }
+                return chunk.test(checkpoint.get(0));
+            });
+            if (processed != null) {
+                return processed;
+            }
+            LOG.debug("Re-encoding of templates is claimed by another instance");
+            Thread.sleep(properties.getBackoff().toMillis());
+        }
+    }
+
+    /**
+     * Re-encodes the templates of the next chunk of persons after the checkpoint and moves the checkpoint.
+     *
+     * @param algorithm    the version of the encoding algorithm the templates are re-encoded to.
+     * @param lastPersonId the id of the last walked person.
+     * @return true if the chunk is processed, false if all persons are walked.
+     */
+    private boolean walkChunk(final int algorithm, final long lastPersonId) {
+        final List<Long> persons = jdbcTemplate.queryForList(
+                "select ID from PERSON where ID > ? order by ID limit ? for update",
+                Long.class, lastPersonId, properties.getChunkSize());
+        if (persons.isEmpty()) {
+            return false;
+        }
+        final long last = persons.get(persons.size() - 1);
+        final int reencoded = reencodeChunk(algorithm, persons.get(0), last, false);
+        jdbcTemplate.update("update REENCODE_JOB set LAST_PERSON_ID = ?, PROCESSED = PROCESSED + ?, "
+                + "UPDATED = now() where ALGORITHM = ?", last, reencoded, algorithm);
+        return true;
+    }
+
+    /**
+     * Re-encodes the templates of the previous versions that were stored after their persons were walked,
+     * then removes the templates of the previous versions of the next chunk of persons after the checkpoint
+     * that still have them. Once the persons are passed, the pass starts over if the templates of the
+     * previous versions were stored meanwhile for the persons before the checkpoint.
+     *
+     * @param algorithm        the version of the encoding algorithm the templates are re-encoded to.
+     * @param replacedPersonId the id of the last person whose templates are replaced.
+     * @return true if the chunk is processed, false if no templates of the previous versions are left.
+     */
+    private boolean replaceChunk(final int algorithm, final long replacedPersonId) {
+        final List<Long> persons = jdbcTemplate.queryForList(
+                "select distinct PERSON_ID from IRIS_TEMPLATE where PERSON_ID > ? and ALGORITHM < ? "
+                        + "order by PERSON_ID limit ?",
+                Long.class, replacedPersonId, algorithm, properties.getChunkSize());
+        if (persons.isEmpty()) {
+            final boolean left = !jdbcTemplate.queryForList(
+                    "select ID from IRIS_TEMPLATE where ALGORITHM < ? limit 1", Long.class, algorithm).isEmpty();
+            if (left) {
+                jdbcTemplate.update("update REENCODE_JOB set REPLACED_PERSON_ID = 0, UPDATED = now() "
+                        + "where ALGORITHM = ?", algorithm);
+            }
+            return left;
+        }
+        final long first = persons.get(0);
+        final long last = persons.get(persons.size() - 1);
+        jdbcTemplate.queryForList("select ID from PERSON where ID between ? and ? for update", Long.class, first, last);
+        final int reencoded = reencodeChunk(algorithm, first, last, true);
+        jdbcTemplate.update("update REENCODE_JOB set REPLACED_PERSON_ID = ?, PROCESSED = PROCESSED + ?, "
+                + "UPDATED = now() where ALGORITHM = ?", last, reencoded, algorithm);
+        return true;
+    }
+
+    /**
+     * Re-encodes the templates of the persons in the range of ids that are not walked yet,
+     * keeping the best ones up to the maximum number of templates per person, and marks them walked.
+     * The persons are locked by the caller, so that their templates are not enrolled meanwhile.
+     * A template that can not be decoded or re-encoded is logged and marked walked without a
+     * re-encoded copy, so that it does not stop the job.
+     *
+     * @param algorithm     the version of the encoding algorithm the templates are re-encoded to.
+     * @param firstPersonId the id of the first person of the chunk.
+     * @param lastPersonId  the id of the last person of the chunk.
+     * @param replace       whether the templates of the previous versions are removed afterwards.
+     * @return the number of stored re-encoded templates.
+     */
+    private int reencodeChunk(final int algorithm, final long firstPersonId, final long lastPersonId,
+                              final boolean replace) {
+        final Map<Long, List<StoredTemplate>> stored = new LinkedHashMap<>();
+        final Map<Long, String> walked = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "select ID, PERSON_ID, SITE, QUALITY, DATA, ALGORITHM, REENCODED_TO = ? as WALKED from IRIS_TEMPLATE "
+                        + "where PERSON_ID between ? and ? order by PERSON_ID, QUALITY desc",
+                (RowCallbackHandler) rs -> {
+                    final long id = rs.getLong("ID");
+                    final long personId = rs.getLong("PERSON_ID");
+                    final String site = rs.getString("SITE");
+                    final int version = rs.getInt("ALGORITHM");
+                    final boolean done = rs.getBoolean("WALKED");
+                    try {
+                        final IrisCode iris = TemplateCodec.decode(rs.getBytes("DATA"), version);
+                        stored.computeIfAbsent(personId, key -> new ArrayList<>())
+                                .add(new StoredTemplate(id, personId, site, rs.getDouble("QUALITY"), iris, done));
+                    } catch (IllegalArgumentException e) {
+                        LOG.warn("Skipped template {} that can not be decoded: {}", id, e.getMessage());
+                        if (version < algorithm && !done) {
+                            walked.put(id, site);
+                        }
+                    }
+                },
+                algorithm, firstPersonId, lastPersonId);
+
+        final List<StoredTemplate> sources = new ArrayList<>();
+        final List<CompletableFuture<StoredTemplate>> futures = new ArrayList<>();
+        stored.forEach((personId, templates) -> {
+            final long current = templates.stream()
+                    .filter(template -> template.getIris().getAlgorithm() == algorithm)
+                    .count();
+            final List<StoredTemplate> previous = templates.stream()
+                    .filter(template -> template.getIris().getAlgorithm() < algorithm && !template.isWalked())
+                    .collect(Collectors.toList());
+            previous.forEach(template -> walked.put(template.getId(), template.getSite()));
+            previous.stream()
+                    .limit(Math.max(maxPerPerson - current, 0))
+                    .forEach(template -> {
+                        sources.add(template);
+                        futures.add(CompletableFuture.supplyAsync(() -> template.reencode(encoder), workers));
+                    });
+        });
+        final List<StoredTemplate> reencoded = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                reencoded.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                LOG.warn("Skipped template {} that can not be re-encoded", sources.get(i).getId(), e.getCause());
+            }
+        }
+
+        final List<StoredTemplate> inserted = insert(algorithm, reencoded);
+        if (!walked.isEmpty()) {
+            jdbcTemplate.batchUpdate("update IRIS_TEMPLATE set REENCODED_TO = ? where ID = ? and SITE = ?",
+                    walked.entrySet(), walked.size(), (statement, template) -> {
+                        statement.setInt(1, algorithm);
+                        statement.setLong(2, template.getKey());
+                        statement.setString(3, template.getValue());
+                    });
+        }
+        if (replace) {
+            jdbcTemplate.update("delete from IRIS_TEMPLATE where PERSON_ID between ? and ? "
+                    + "and ALGORITHM < ? and REENCODED_TO = ?", firstPersonId, lastPersonId, algorithm, algorithm);
+        }
+
+        final Map<Long, List<StoredTemplate>> added = inserted.stream()
+                .collect(Collectors.groupingBy(StoredTemplate::getPersonId));
+        stored.forEach((personId, templates) -> {
+            final boolean removed = replace && templates.stream()
+                    .anyMatch(template -> template.getIris().getAlgorithm() < algorithm);
+            if (!removed && !added.containsKey(personId)) {
+                return;
+            }
+            final List<IrisCode> codes = new ArrayList<>();
+            templates.stream()
+                    .filter(template -> !replace || template.getIris().getAlgorithm() >= algorithm)
+                    .forEach(template -> codes.add(template.getIris()));
+            added.getOrDefault(personId, Collections.emptyList()).forEach(template -> codes.add(template.getIris()));
+            eventPublisher.publishEvent(new TemplatesChangedEvent(personId, templates.get(0).getSite(), codes));
+        });
+        LOG.debug("Re-encoded {} templates of persons {}..{}", inserted.size(), firstPersonId, lastPersonId);
+        return inserted.size();
+    }
+
+    /**
+     * Stores the re-encoded templates in one batch, skipping the persons that were removed meanwhile
+     * or already have the maximum number of templates of the current version.
+     *
+     * @param algorithm the version of the encoding algorithm the templates are re-encoded to.
+     * @param reencoded the re-encoded templates.
+     * @return the stored templates.
+     */
+    private List<StoredTemplate> insert(final int algorithm, final List<StoredTemplate> reencoded) {
+        final List<StoredTemplate> inserted = new ArrayList<>();
+        if (reencoded.isEmpty()) {
+            return inserted;
+        }
+        final int[][] counts = jdbcTemplate.batchUpdate(INSERT_TEMPLATE, reencoded, reencoded.size(),
+                (statement, template) -> {
+                    statement.setLong(1, template.getPersonId());
+                    statement.setString(2, template.getSite());
+                    statement.setDouble(3, template.getQuality());
+                    statement.setBytes(4, TemplateCodec.encode(template.getIris()));
+                    statement.setInt(5, algorithm);
+                    statement.setLong(6, template.getPersonId());
+                    statement.setString(7, template.getSite());
+                    statement.setLong(8, template.getPersonId());
+                    statement.setString(9, template.getSite());
+                    statement.setInt(10, algorithm);
+                    statement.setInt(11, maxPerPerson);
+                });
+        for (int i = 0; i < reencoded.size(); i++) {
+            if (counts[0][i] > 0) {
+                inserted.add(reencoded.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Pauses between the chunks, and while the average latency of requests is above the threshold.
+     *
+     * @throws InterruptedException is thrown when the job is stopped.
+     */
+    private void throttle() throws InterruptedException {
+        Thread.sleep(properties.getDelay().toMillis());
+        while (latencyMonitor.getAverageNanos() > properties.getLatencyThreshold().toNanos()) {
+            LOG.debug("Re-encoding of templates paused while requests are slow");
+            Thread.sleep(properties.getBackoff().toMillis());
+        }
+    }
+
+    /**
+     * Creates a factory of daemon threads.
+     *
+     * @param prefix the prefix of the names of the threads.
+     * @return the factory of threads.
+     */
+    private static CustomizableThreadFactory daemonThreads(final String prefix) {
+        final CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.smirnovv.reencode;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The settings of the background re-encoding of templates.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+@ConfigurationProperties("iris.reencode")
+public class ReencodeProperties {
+    /**
+     * Whether the re-encoding is started or resumed on startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of persons re-encoded in one transaction.
+     */
+    private int chunkSize = 200;
+
+    /**
+     * The number of threads re-encoding the templates of a chunk.
+     */
+    private int parallelism = 2;
+
+    /**
+     * The pause between the chunks.
+     */
+    private Duration delay = Duration.ofMillis(50);
+
+    /**
+     * The average latency of requests above which the re-encoding is paused.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(250);
+
+    /**
+     * The pause while the average latency of requests is above the threshold,
+     * or while the job is claimed by another instance.
+     */
+    private Duration backoff = Duration.ofSeconds(5);
+
+    /**
+     * Returns whether the re-encoding is started or resumed on startup.
+     *
+     * @return whether the re-encoding is started or resumed on startup.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Updates whether the re-encoding is started or resumed on startup.
+     *
+     * @param enabled whether the re-encoding is started or resumed on startup.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the number of persons re-encoded in one transaction.
+     *
+     * @return the number of persons re-encoded in one transaction.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Updates the number of persons re-encoded in one transaction.
+     *
+     * @param chunkSize the number of persons re-encoded in one transaction.
+     */
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the number of threads re-encoding the templates of a chunk.
+     *
+     * @return the number of threads re-encoding the templates of a chunk.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Updates the number of threads re-encoding the templates of a chunk.
+     *
+     * @param parallelism the number of threads re-encoding the templates of a chunk.
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the pause between the chunks.
+     *
+     * @return the pause between the chunks.
+     */
+    public Duration getDelay() {
+        return delay;
+    }
+
+    /**
+     * Updates the pause between the chunks.
+     *
+     * @param delay the pause between the chunks.
+     */
+    public void setDelay(final Duration delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Returns the average latency of requests above which the re-encoding is paused.
+     *
+     * @return the average latency of requests above which the re-encoding is paused.
+     */
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    /**
+     * Updates the average latency of requests above which the re-encoding is paused.
+     *
+     * @param latencyThreshold the average latency of requests above which the re-encoding is paused.
+     */
+    public void setLatencyThreshold(final Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    /**
+     * Returns the pause while the average latency of requests is above the threshold,
+     * or while the job is claimed by another instance.
+     *
+     * @return the pause.
+     */
+    public Duration getBackoff() {
+        return backoff;
+    }
+
+    /**
+     * Updates the pause while the average latency of requests is above the threshold,
+     * or while the job is claimed by another instance.
+     *
+     * @param backoff the pause.
+     */
+    public void setBackoff(final Duration backoff) {
+        this.backoff = backoff;
+    }
+}
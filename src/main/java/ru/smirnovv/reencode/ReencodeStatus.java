@@ -0,0 +1,110 @@
+package ru.smirnovv.reencode;
+
+/**
+ * The progress of the re-encoding of templates to a version of the encoding algorithm.
+ */
+public class ReencodeStatus {
+    /**
+     * The version of the encoding algorithm the templates are re-encoded to.
+     */
+    private final int algorithm;
+
+    /**
+     * The id of the last person whose templates are re-encoded.
+     */
+    private final long lastPersonId;
+
+    /**
+     * The number of re-encoded templates.
+     */
+    private final long processed;
+
+    /**
+     * The number of stored templates of the previous versions of the encoding algorithm.
+     */
+    private final long pending;
+
+    /**
+     * Whether all templates are re-encoded.
+     */
+    private final boolean finished;
+
+    /**
+     * Whether the re-encoding is in progress.
+     */
+    private final boolean running;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param algorithm    the version of the encoding algorithm the templates are re-encoded to.
+     * @param lastPersonId the id of the last person whose templates are re-encoded.
+     * @param processed    the number of re-encoded templates.
+     * @param pending      the number of stored templates of the previous versions of the encoding algorithm.
+     * @param finished     whether all templates are re-encoded.
+     * @param running      whether the re-encoding is in progress.
+     */
+    public ReencodeStatus(final int algorithm, final long lastPersonId, final long processed, final long pending,
+                          final boolean finished, final boolean running) {
+        this.algorithm = algorithm;
+        this.lastPersonId = lastPersonId;
+        this.processed = processed;
+        this.pending = pending;
+        this.finished = finished;
+        this.running = running;
+    }
+
+    /**
+     * Returns the version of the encoding algorithm the templates are re-encoded to.
+     *
+     * @return the version of the encoding algorithm.
+     */
+    public final int getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the id of the last person whose templates are re-encoded.
+     *
+     * @return the id of the last person whose templates are re-encoded.
+     */
+    public final long getLastPersonId() {
+        return lastPersonId;
+    }
+
+    /**
+     * Returns the number of re-encoded templates.
+     *
+     * @return the number of re-encoded templates.
+     */
+    public final long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Returns the number of stored templates of the previous versions of the encoding algorithm.
+     *
+     * @return the number of stored templates of the previous versions.
+     */
+    public final long getPending() {
+        return pending;
+    }
+
+    /**
+     * Returns whether all templates are re-encoded.
+     *
+     * @return whether all templates are re-encoded.
+     */
+    public final boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns whether the re-encoding is in progress.
+     *
+     * @return whether the re-encoding is in progress.
+     */
+    public final boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.smirnovv.reencode;
+
+import ru.smirnovv.template.IrisCode;
+import ru.smirnovv.template.TemplateEncoder;
+
+/**
+ * A decoded template read by the re-encoding job.
+ */
+final class StoredTemplate {
+    /**
+     * The id of the stored template, or of the stored template it is re-encoded from.
+     */
+    private final long id;
+
+    /**
+     * The id of the person the template belongs to.
+     */
+    private final long personId;
+
+    /**
+     * The key of the site the person is registered at.
+     */
+    private final String site;
+
+    /**
+     * The quality score of the template from 0 to 1.
+     */
+    private final double quality;
+
+    /**
+     * The iris code.
+     */
+    private final IrisCode iris;
+
+    /**
+     * Whether the template was walked by the re-encoding to the current version.
+     */
+    private final boolean walked;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param id       the id of the stored template, or of the stored template it is re-encoded from.
+     * @param personId the id of the person the template belongs to.
+     * @param site     the key of the site the person is registered at.
+     * @param quality  the quality score of the template from 0 to 1.
+     * @param iris     the iris code.
+     * @param walked   whether the template was walked by the re-encoding to the current version.
+     */
+    StoredTemplate(final long id, final long personId, final String site, final double quality,
+                   final IrisCode iris, final boolean walked) {
+        this.id = id;
+        this.personId = personId;
+        this.site = site;
+        this.quality = quality;
+        this.iris = iris;
+        this.walked = walked;
+    }
+
+    /**
+     * Returns the id of the stored template, or of the stored template it is re-encoded from.
+     *
+     * @return the id of the template.
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the id of the person the template belongs to.
+     *
+     * @return the id of the person the template belongs to.
+     */
+    long getPersonId() {
+        return personId;
+    }
+
+    /**
+     * Returns the key of the site the person is registered at.
+     *
+     * @return the key of the site the person is registered at.
+     */
+    String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns the quality score of the template.
+     *
+     * @return the quality score of the template from 0 to 1.
+     */
+    double getQuality() {
+        return quality;
+    }
+
+    /**
+     * Returns the iris code.
+     *
+     * @return the iris code.
+     */
+    IrisCode getIris() {
+        return iris;
+    }
+
+    /**
+     * Returns whether the template was walked by the re-encoding to the current version,
+     * that is re-encoded or left out since the person already had enough templates.
+     *
+     * @return true if the template was walked.
+     */
+    boolean isWalked() {
+        return walked;
+    }
+
+    /**
+     * Re-encodes the template keeping its quality score.
+     *
+     * @param encoder the encoder of the new version of the encoding algorithm.
+     * @return the re-encoded template.
+     */
+    StoredTemplate reencode(final TemplateEncoder encoder) {
+        return new StoredTemplate(id, personId, site, quality, encoder.reencode(iris), true);
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * The package containing classes that re-encode the stored iris templates in the background
+ * when the version of the encoding algorithm changes.
+ */
+package ru.smirnovv.reencode;
@@ -0,0 +1,24 @@
+package ru.smirnovv.template;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The encoder of the default version of the encoding algorithm, which has no previous versions.
+ */
+@SuppressWarnings("designForExtension")
+@Component
+public class DefaultTemplateEncoder implements TemplateEncoder {
+    @Override
+    public int getAlgorithm() {
+        return IrisCode.DEFAULT_ALGORITHM;
+    }
+
+    @Override
+    public IrisCode reencode(final IrisCode iris) throws IllegalArgumentException {
+        if (iris.getAlgorithm() != IrisCode.DEFAULT_ALGORITHM) {
+            throw new IllegalArgumentException("Templates of algorithm " + iris.getAlgorithm()
+                    + " can not be re-encoded by algorithm " + IrisCode.DEFAULT_ALGORITHM + ".");
+        }
+        return iris;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.smirnovv.template;
+
+/**
+ * This exception indicates that the iris template is malformed.
+ * The code and the mask must be Base64 encoded, not empty and of the same length,
+ * and the contrast of the iris image must be a number from 0 to 1.
+ */
+public class InvalidTemplateException extends RuntimeException {
+    /**
+     * Constructs an instance with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public InvalidTemplateException(final String message) {
+        super(message);
+    }
+}
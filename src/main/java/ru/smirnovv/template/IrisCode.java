@@ -0,0 +1,180 @@
+package ru.smirnovv.template;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An iris code with the mask of its usable bits, packed into 64-bit words for matching.
+ * Only the codes produced by the same version of the encoding algorithm are comparable.
+ */
+@SuppressWarnings("magicNumber")
+public final class IrisCode {
+    /**
+     * The maximum length in bytes of the code and of the mask.
+     */
+    public static final int MAX_BYTES = 4096;
+
+    /**
+     * The version of the encoding algorithm of the codes enrolled before the versions were tracked.
+     */
+    public static final int DEFAULT_ALGORITHM = 1;
+
+    /**
+     * The version of the encoding algorithm that produced the code.
+     */
+    private final int algorithm;
+
+    /**
+     * The length of the code in bits.
+     */
+    private final int bits;
+
+    /**
+     * The bits of the code.
+     */
+    private final long[] code;
+
+    /**
+     * The bits of the mask, set for the usable bits of the code.
+     */
+    private final long[] mask;
+
+    /**
+     * Constructs an instance produced by the default version of the encoding algorithm.
+     *
+     * @param code the bytes of the code.
+     * @param mask the bytes of the mask.
+     * @throws InvalidTemplateException is thrown when the code or the mask is empty, too long or of another length.
+     */
+    public IrisCode(final byte[] code, final byte[] mask) throws InvalidTemplateException {
+        this(DEFAULT_ALGORITHM, code, mask);
+    }
+
+    /**
+     * Constructs an instance from the bytes of the code and of the mask, the least significant bit first.
+     *
+     * @param algorithm the version of the encoding algorithm that produced the code.
+     * @param code      the bytes of the code.
+     * @param mask      the bytes of the mask.
+     * @throws InvalidTemplateException is thrown when the code or the mask is empty, too long or of another length.
+     */
+    public IrisCode(final int algorithm, final byte[] code, final byte[] mask) throws InvalidTemplateException {
+        if (code.length == 0 || mask.length == 0) {
+            throw new InvalidTemplateException("Invalid template! The code and the mask must not be empty!");
+        } else if (code.length != mask.length) {
+            throw new InvalidTemplateException("Invalid template! The code and the mask must be of the same length!");
+        } else if (code.length > MAX_BYTES) {
+            throw new InvalidTemplateException("Invalid template! The code must be no longer than "
+                    + MAX_BYTES + " bytes!");
+        }
+        this.algorithm = algorithm;
+        this.bits = code.length * 8;
+        this.code = toWords(code);
+        this.mask = toWords(mask);
+    }
+
+    /**
+     * Returns the version of the encoding algorithm that produced the code.
+     *
+     * @return the version of the encoding algorithm.
+     */
+    public int getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the length of the code in bits.
+     *
+     * @return the length of the code in bits.
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * Returns the bytes of the code, the least significant bit first.
+     *
+     * @return the bytes of the code.
+     */
+    public byte[] getCodeBytes() {
+        return toBytes(code);
+    }
+
+    /**
+     * Returns the bytes of the mask, the least significant bit first.
+     *
+     * @return the bytes of the mask.
+     */
+    public byte[] getMaskBytes() {
+        return toBytes(mask);
+    }
+
+    /**
+     * Returns the fraction of the usable bits of the code.
+     *
+     * @return the fraction of the usable bits from 0 to 1.
+     */
+    public double usableRatio() {
+        long usable = 0;
+        for (final long word : mask) {
+            usable += Long.bitCount(word);
+        }
+        return (double) usable / bits;
+    }
+
+    /**
+     * Returns the fractional Hamming distance to the other code over the bits usable in both codes.
+     *
+     * @param other the other code.
+     * @return the distance from 0 for the same codes to 1, or 1 if the codes have no common usable bits
+     * or were produced by different versions of the encoding algorithm.
+     */
+    public double distance(final IrisCode other) {
+        if (algorithm != other.algorithm) {
+            return 1;
+        }
+        final int words = Math.min(code.length, other.code.length);
+        long usable = 0;
+        long different = 0;
+        for (int i = 0; i < words; i++) {
+            final long common = mask[i] & other.mask[i];
+            usable += Long.bitCount(common);
+            different += Long.bitCount((code[i] ^ other.code[i]) & common);
+        }
+        if (usable == 0) {
+            return 1;
+        }
+        return (double) different / usable;
+    }
+
+    /**
+     * Returns the estimated number of bytes the code occupies in memory,
+     * assuming a 64-bit JVM with compressed references and 12-byte object headers.
+     *
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        // the code itself: a header, two ints and two references; and the two arrays of words
+        return 32 + 2 * (16 + 8L * code.length);
+    }
+
+    /**
+     * Packs the bytes into 64-bit words.
+     *
+     * @param bytes the bytes, the least significant bit first.
+     * @return the words.
+     */
+    private static long[] toWords(final byte[] bytes) {
+        return Arrays.copyOf(BitSet.valueOf(bytes).toLongArray(), (bytes.length + 7) / 8);
+    }
+
+    /**
+     * Unpacks the 64-bit words into bytes of the code.
+     *
+     * @param words the words.
+     * @return the bytes, the least significant bit first.
+     */
+    private byte[] toBytes(final long[] words) {
+        return Arrays.copyOf(BitSet.valueOf(words).toByteArray(), bits / 8);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.smirnovv.template;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+/**
+ * An entry that represents an enrolled iris template of a person.
+ * The template is stored in the compact encoding of {@link TemplateCodec}.
+ */
+@Entity
+public class IrisTemplate {
+    /**
+     * The id of the template.
+     */
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    /**
+     * The id of the person the template belongs to.
+     */
+    private long personId;
+
+    /**
+     * The key of the site the person is registered at.
+     */
+    private String site;
+
+    /**
+     * The quality score of the template from 0 to 1.
+     */
+    private double quality;
+
+    /**
+     * The encoded template.
+     */
+    private byte[] data;
+
+    /**
+     * The version of the encoding algorithm that produced the template.
+     */
+    private int algorithm;
+
+    /**
+     * Constructs an instance.
+     */
+    public IrisTemplate() {
+    }
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param personId the id of the person the template belongs to.
+     * @param site     the key of the site the person is registered at.
+     * @param quality  the quality score of the template from 0 to 1.
+     * @param iris     the iris code.
+     */
+    public IrisTemplate(final long personId, final String site, final double quality, final IrisCode iris) {
+        this.personId = personId;
+        this.site = site;
+        this.quality = quality;
+        this.data = TemplateCodec.encode(iris);
+        this.algorithm = iris.getAlgorithm();
+    }
+
+    /**
+     * Returns the id of the template.
+     *
+     * @return the id of the template.
+     */
+    public final Long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the id of the person the template belongs to.
+     *
+     * @return the id of the person the template belongs to.
+     */
+    public final long getPersonId() {
+        return personId;
+    }
+
+    /**
+     * Returns the key of the site the person is registered at.
+     *
+     * @return the key of the site the person is registered at.
+     */
+    public final String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns the quality score of the template.
+     *
+     * @return the quality score of the template from 0 to 1.
+     */
+    public final double getQuality() {
+        return quality;
+    }
+
+    /**
+     * Returns the encoded template.
+     *
+     * @return the encoded template.
+     */
+    @JsonIgnore
+    public final byte[] getData() {
+        return data.clone();
+    }
+
+    /**
+     * Returns the version of the encoding algorithm that produced the template.
+     *
+     * @return the version of the encoding algorithm.
+     */
+    public final int getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Decodes the template.
+     *
+     * @return the iris code.
+     */
+    public final IrisCode decode() {
+        return TemplateCodec.decode(data, algorithm);
+    }
+
+    /**
+     * Returns the size of the encoded template in bytes.
+     *
+     * @return the size of the encoded template in bytes.
+     */
+    public final int getSize() {
+        return data.length;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.smirnovv.template;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * A repository that manages the iris templates of persons.
+ */
+public interface IrisTemplateRepository extends JpaRepository<IrisTemplate, Long> {
+    /**
+     * Lists the templates of the person from the best to the worst.
+     *
+     * @param personId the id of the person.
+     * @return the templates of the person.
+     */
+    List<IrisTemplate> findByPersonIdOrderByQualityDesc(long personId);
+
+    /**
+     * Lists the templates of all persons registered at the site.
+     *
+     * @param site the key of the site.
+     * @return the templates of the site.
+     */
+    List<IrisTemplate> findBySite(String site);
+
+    /**
+     * Removes the templates of the person.
+     *
+     * @param personId the id of the person.
+     */
+    void deleteByPersonId(long personId);
+}
@@ -0,0 +1,159 @@
+package ru.smirnovv.template;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The compact storage encoding of iris codes.
+ * The encoded template consists of the format version, the length of the code in bytes,
+ * the packed bits of the code and the run-length encoded mask. The mask is stored as the lengths
+ * of alternating runs of unusable and usable bits, starting with unusable ones; the occluded
+ * regions of an iris are contiguous, so a mask takes a few bytes instead of the code length.
+ * All lengths are unsigned variable-length integers, 7 bits per byte.
+ */
+@SuppressWarnings("magicNumber")
+public final class TemplateCodec {
+    /**
+     * The version of the encoding.
+     */
+    public static final int FORMAT = 1;
+
+    /**
+     * Constructs an instance.
+     */
+    private TemplateCodec() {
+    }
+
+    /**
+     * Encodes the iris code.
+     *
+     * @param iris the iris code.
+     * @return the encoded template.
+     */
+    public static byte[] encode(final IrisCode iris) {
+        final byte[] code = iris.getCodeBytes();
+        final byte[] mask = iris.getMaskBytes();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(code.length + 16);
+        out.write(FORMAT);
+        writeVarInt(out, code.length);
+        out.write(code, 0, code.length);
+
+        boolean usable = false;
+        int run = 0;
+        for (int i = 0; i < iris.getBits(); i++) {
+            if (isSet(mask, i) != usable) {
+                writeVarInt(out, run);
+                usable = !usable;
+                run = 0;
+            }
+            run++;
+        }
+        writeVarInt(out, run);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the iris code produced by the default version of the encoding algorithm.
+     *
+     * @param data the encoded template.
+     * @return the iris code.
+     * @throws IllegalArgumentException is thrown when the template is malformed.
+     */
+    public static IrisCode decode(final byte[] data) throws IllegalArgumentException {
+        return decode(data, IrisCode.DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * Decodes the iris code.
+     *
+     * @param data      the encoded template.
+     * @param algorithm the version of the encoding algorithm that produced the code.
+     * @return the iris code.
+     * @throws IllegalArgumentException is thrown when the template is malformed.
+     */
+    public static IrisCode decode(final byte[] data, final int algorithm) throws IllegalArgumentException {
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        if (!in.hasRemaining()) {
+            throw new IllegalArgumentException("The template is empty");
+        }
+        final int format = in.get();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unsupported template format " + format);
+        }
+        final int length = readVarInt(in);
+        if (length <= 0 || length > IrisCode.MAX_BYTES) {
+            throw new IllegalArgumentException("Invalid code length " + length);
+        } else if (length > in.remaining()) {
+            throw new IllegalArgumentException("The template is truncated");
+        }
+        final byte[] code = new byte[length];
+        in.get(code);
+
+        final byte[] mask = new byte[length];
+        boolean usable = false;
+        int bit = 0;
+        while (bit < length * 8) {
+            final int run = readVarInt(in);
+            if (run > length * 8 - bit) {
+                throw new IllegalArgumentException("The mask runs do not match the code length " + length);
+            }
+            if (usable) {
+                for (int i = bit; i < bit + run; i++) {
+                    mask[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            bit += run;
+            usable = !usable;
+        }
+        return new IrisCode(algorithm, code, mask);
+    }
+
+    /**
+     * Checks whether the bit is set.
+     *
+     * @param bytes the bytes, the least significant bit first.
+     * @param index the index of the bit.
+     * @return true if the bit is set.
+     */
+    private static boolean isSet(final byte[] bytes, final int index) {
+        return (bytes[index >>> 3] & 1 << (index & 7)) != 0;
+    }
+
+    /**
+     * Writes the unsigned variable-length integer.
+     *
+     * @param out   the output.
+     * @param value the non-negative value.
+     */
+    private static void writeVarInt(final ByteArrayOutputStream out, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    /**
+     * Reads the unsigned variable-length integer.
+     *
+     * @param in the input.
+     * @return the value.
+     * @throws IllegalArgumentException is thrown when the input ends or the value does not fit into 31 bits.
+     */
+    private static int readVarInt(final ByteBuffer in) throws IllegalArgumentException {
+        int value = 0;
+        for (int shift = 0; shift < 31; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IllegalArgumentException("The template is truncated");
+            }
+            final int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0 && value >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+}
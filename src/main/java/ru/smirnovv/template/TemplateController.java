@@ -0,0 +1,102 @@
+package ru.smirnovv.template;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.smirnovv.ErrorType;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.util.Assert.notNull;
+
+/**
+ * A REST controller that serves the iris templates of persons.
+ */
+@RestController
+@RequestMapping("/person/{id}/template")
+public class TemplateController {
+    /**
+     * A service that manages the iris templates of persons.
+     */
+    private final TemplateService templateService;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param templateService a service that manages the iris templates of persons.
+     */
+    @Autowired
+    public TemplateController(final TemplateService templateService) {
+        notNull(templateService, "Argument 'templateService' can not be null");
+
+        this.templateService = templateService;
+    }
+
+    /**
+     * Lists the templates of the person from the best to the worst.
+     *
+     * @param id the id of the person.
+     * @return the templates of the person.
+     */
+    @GetMapping
+    public final List<IrisTemplate> list(@PathVariable final long id) {
+        return templateService.list(id);
+    }
+
+    /**
+     * Enrolls the template of the person produced by the current version of the encoding algorithm.
+     *
+     * @param id       the id of the person.
+     * @param code     the Base64 encoded bytes of the iris code, the least significant bit first.
+     * @param mask     the Base64 encoded bytes of the mask of the usable bits of the code.
+     * @param contrast the contrast of the iris image from 0 to 1.
+     * @return the templates of the person after the enrollment from the best to the worst.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public final List<IrisTemplate> enroll(@PathVariable final long id, @RequestParam final String code,
+                                           @RequestParam final String mask, @RequestParam final double contrast) {
+        return templateService.enroll(id, new IrisCode(templateService.getAlgorithm(),
+                decodeBase64(code), decodeBase64(mask)), contrast);
+    }
+
+    /**
+     * Handles {@link InvalidTemplateException} and returns the response with error information.
+     *
+     * @param request   the request where the exception was thrown.
+     * @param exception the thrown exception.
+     * @return a response entity with error details.
+     * @see ErrorType
+     */
+    @ExceptionHandler(InvalidTemplateException.class)
+    public final ResponseEntity<ErrorType> handleInvalidTemplateException(
+            final HttpServletRequest request, final InvalidTemplateException exception) {
+        return new ResponseEntity<>(
+                new ErrorType(request.getRequestURI(), BAD_REQUEST.value(), exception.getMessage()),
+                BAD_REQUEST);
+    }
+
+    /**
+     * Decodes the Base64 encoded bytes.
+     *
+     * @param value the Base64 encoded bytes.
+     * @return the decoded bytes.
+     * @throws InvalidTemplateException is thrown when the value is not Base64 encoded.
+     */
+    private static byte[] decodeBase64(final String value) throws InvalidTemplateException {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTemplateException("Invalid template! The code and the mask must be Base64 encoded!");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.smirnovv.template;
+
+/**
+ * An encoder of iris templates of one version of the encoding algorithm.
+ * When the algorithm changes, the encoder of the new version re-encodes the stored templates
+ * of the previous versions, so that they are comparable with the newly enrolled templates.
+ */
+public interface TemplateEncoder {
+    /**
+     * Returns the version of the encoding algorithm.
+     *
+     * @return the version of the encoding algorithm.
+     */
+    int getAlgorithm();
+
+    /**
+     * Re-encodes the template produced by a previous version of the encoding algorithm.
+     *
+     * @param iris the iris code produced by a previous version of the encoding algorithm.
+     * @return the iris code produced by the version of the encoder.
+     * @throws IllegalArgumentException is thrown when the version of the template is not supported.
+     */
+    IrisCode reencode(IrisCode iris) throws IllegalArgumentException;
+}
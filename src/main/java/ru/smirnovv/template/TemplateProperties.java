@@ -0,0 +1,35 @@
+package ru.smirnovv.template;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * The settings of the iris templates.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+@ConfigurationProperties("iris.template")
+public class TemplateProperties {
+    /**
+     * The maximum number of templates kept per person.
+     */
+    private int maxPerPerson = 5;
+
+    /**
+     * Returns the maximum number of templates kept per person.
+     *
+     * @return the maximum number of templates kept per person.
+     */
+    public int getMaxPerPerson() {
+        return maxPerPerson;
+    }
+
+    /**
+     * Updates the maximum number of templates kept per person.
+     *
+     * @param maxPerPerson the maximum number of templates kept per person.
+     */
+    public void setMaxPerPerson(final int maxPerPerson) {
+        this.maxPerPerson = maxPerPerson;
+    }
+}
@@ -0,0 +1,182 @@
+package ru.smirnovv.template;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonNotFoundException;
+import ru.smirnovv.person.PersonRemovedEvent;
+import ru.smirnovv.person.PersonService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A service that manages the iris templates of persons.
+ * Only the best templates of a person are kept per version of the encoding algorithm,
+ * ranked by the quality score.
+ */
+@SuppressWarnings("designForExtension")
+@Service
+public class TemplateService {
+    /**
+     * A repository that manages the iris templates of persons.
+     */
+    private final IrisTemplateRepository templateRepository;
+
+    /**
+     * A service that manages registered in the system persons.
+     */
+    private final PersonService personService;
+
+    /**
+     * A publisher of the events about changed templates.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The encoder of the current version of the encoding algorithm.
+     */
+    private final TemplateEncoder encoder;
+
+    /**
+     * The maximum number of templates kept per person.
+     */
+    private final int maxPerPerson;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param templateRepository a repository that manages the iris templates of persons.
+     * @param personService      a service that manages registered in the system persons.
+     * @param eventPublisher     a publisher of the events about changed templates.
+     * @param encoder            the encoder of the current version of the encoding algorithm.
+     * @param properties         the settings of the iris templates.
+     */
+    @Autowired
+    public TemplateService(final IrisTemplateRepository templateRepository, final PersonService personService,
+                           final ApplicationEventPublisher eventPublisher, final TemplateEncoder encoder,
+                           final TemplateProperties properties) {
+        Assert.notNull(templateRepository, "Argument 'templateRepository' can not be null");
+        Assert.notNull(personService, "Argument 'personService' can not be null");
+        Assert.notNull(eventPublisher, "Argument 'eventPublisher' can not be null");
+        Assert.notNull(encoder, "Argument 'encoder' can not be null");
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+        Assert.isTrue(properties.getMaxPerPerson() > 0, "Maximum number of templates must be positive");
+
+        this.templateRepository = templateRepository;
+        this.personService = personService;
+        this.eventPublisher = eventPublisher;
+        this.encoder = encoder;
+        this.maxPerPerson = properties.getMaxPerPerson();
+    }
+
+    /**
+     * Checks the contrast of the iris image for validity.
+     *
+     * @param contrast the contrast of the iris image.
+     * @throws InvalidTemplateException is thrown when the contrast is not a number from 0 to 1.
+     */
+    public static void checkContrast(final double contrast) throws InvalidTemplateException {
+        if (!(contrast >= 0 && contrast <= 1)) {
+            throw new InvalidTemplateException("Invalid template! The contrast must be a number from 0 to 1!");
+        }
+    }
+
+    /**
+     * Computes the quality score of the template.
+     *
+     * @param iris     the iris code.
+     * @param contrast the contrast of the iris image from 0 to 1.
+     * @return the quality score from 0 to 1.
+     */
+    public static double quality(final IrisCode iris, final double contrast) {
+        return iris.usableRatio() * contrast;
+    }
+
+    /**
+     * Returns the current version of the encoding algorithm the enrolled templates are produced by.
+     *
+     * @return the current version of the encoding algorithm.
+     */
+    public int getAlgorithm() {
+        return encoder.getAlgorithm();
+    }
+
+    /**
+     * Lists the templates of the person from the best to the worst.
+     *
+     * @param personId the id of the person.
+     * @return the templates of the person.
+     * @throws PersonNotFoundException is thrown when a person with such id does not exist.
+     */
+    @Transactional(readOnly = true)
+    public List<IrisTemplate> list(final long personId) throws PersonNotFoundException {
+        personService.getPersonById(personId);
+        return templateRepository.findByPersonIdOrderByQualityDesc(personId);
+    }
+
+    /**
+     * Enrolls the template of the person.
+     * When the person already has the maximum number of templates of the same version of the encoding
+     * algorithm, the worst one is replaced if the new template is better, otherwise the new template is discarded.
+     * The person is locked until the transaction ends, so that concurrent enrollments do not exceed the maximum.
+     *
+     * @param personId the id of the person.
+     * @param iris     the iris code.
+     * @param contrast the contrast of the iris image from 0 to 1.
+     * @return the templates of the person after the enrollment from the best to the worst.
+     * @throws PersonNotFoundException  is thrown when a person with such id does not exist.
+     * @throws InvalidTemplateException is thrown when the contrast is not a number from 0 to 1.
+     */
+    @Transactional
+    public List<IrisTemplate> enroll(final long personId, final IrisCode iris, final double contrast)
+            throws PersonNotFoundException, InvalidTemplateException {
+        checkContrast(contrast);
+
+        final Person person = personService.lockPersonById(personId);
+        final double quality = quality(iris, contrast);
+
+        final List<IrisTemplate> found = templateRepository.findByPersonIdOrderByQualityDesc(personId);
+        final List<IrisTemplate> templates = new ArrayList<>();
+        final List<IrisTemplate> others = new ArrayList<>();
+        for (final IrisTemplate template : found) {
+            if (template.getAlgorithm() == iris.getAlgorithm()) {
+                templates.add(template);
+            } else {
+                others.add(template);
+            }
+        }
+        while (templates.size() >= maxPerPerson) {
+            final IrisTemplate worst = templates.get(templates.size() - 1);
+            if (worst.getQuality() >= quality) {
+                return found;
+            }
+            templateRepository.delete(worst);
+            templates.remove(templates.size() - 1);
+        }
+        templates.add(templateRepository.save(new IrisTemplate(personId, person.getSite(), quality, iris)));
+        templates.addAll(others);
+        templates.sort(Comparator.comparingDouble(IrisTemplate::getQuality).reversed());
+
+        eventPublisher.publishEvent(new TemplatesChangedEvent(personId, person.getSite(), templates.stream()
+                .map(IrisTemplate::decode)
+                .collect(Collectors.toList())));
+        return templates;
+    }
+
+    /**
+     * Removes the templates of the removed person in the same transaction.
+     *
+     * @param event the event about the removed person.
+     */
+    @EventListener
+    public void onPersonRemoved(final PersonRemovedEvent event) {
+        templateRepository.deleteByPersonId(event.getId());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.smirnovv.template;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An event published when the templates of a person are changed.
+ */
+public class TemplatesChangedEvent {
+    /**
+     * The id of the person.
+     */
+    private final long personId;
+
+    /**
+     * The key of the site the person is registered at.
+     */
+    private final String site;
+
+    /**
+     * All templates of the person after the change.
+     */
+    private final List<IrisCode> templates;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param personId  the id of the person.
+     * @param site      the key of the site the person is registered at.
+     * @param templates all templates of the person after the change.
+     */
+    public TemplatesChangedEvent(final long personId, final String site, final List<IrisCode> templates) {
+        this.personId = personId;
+        this.site = site;
+        this.templates = Collections.unmodifiableList(templates);
+    }
+
+    /**
+     * Returns the id of the person.
+     *
+     * @return the id of the person.
+     */
+    public final long getPersonId() {
+        return personId;
+    }
+
+    /**
+     * Returns the key of the site the person is registered at.
+     *
+     * @return the key of the site the person is registered at.
+     */
+    public final String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns all templates of the person after the change.
+     *
+     * @return all templates of the person after the change.
+     */
+    public final List<IrisCode> getTemplates() {
+        return templates;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.smirnovv.template;
+
+/**
+ * An event published when the templates of the previous versions of the encoding algorithm
+ * are re-encoded and removed.
+ */
+public class TemplatesReencodedEvent {
+    /**
+     * The version of the encoding algorithm all templates are produced by.
+     */
+    private final int algorithm;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param algorithm the version of the encoding algorithm all templates are produced by.
+     */
+    public TemplatesReencodedEvent(final int algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns the version of the encoding algorithm all templates are produced by.
+     *
+     * @return the version of the encoding algorithm.
+     */
+    public final int getAlgorithm() {
+        return algorithm;
+    }
+}
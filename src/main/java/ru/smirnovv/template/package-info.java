@@ -0,0 +1,4 @@
+/**
+ * The package containing classes that manage the iris templates of persons.
+ */
+package ru.smirnovv.template;
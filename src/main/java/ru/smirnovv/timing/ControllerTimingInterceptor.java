@@ -0,0 +1,28 @@
+package ru.smirnovv.timing;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * An interceptor that measures the time a controller handles the request.
+ * The stage ends when the response body starts being written or, if there is no body,
+ * when the request is completed.
+ *
+ * @see SerializationTimingAdvice
+ */
+public class ControllerTimingInterceptor implements HandlerInterceptor {
+    @Override
+    public final boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                                   final Object handler) {
+        RequestTiming.start(RequestTiming.CONTROLLER);
+        return true;
+    }
+
+    @Override
+    public final void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                      final Object handler, final Exception exception) {
+        RequestTiming.stop(RequestTiming.CONTROLLER);
+    }
+}
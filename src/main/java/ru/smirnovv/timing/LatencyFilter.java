@@ -0,0 +1,51 @@
+package ru.smirnovv.timing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * A filter that records the total time of each request by the {@link LatencyMonitor}.
+ * Unlike {@link ServerTimingFilter} it can not be disabled, since background jobs rely
+ * on the monitor to yield to the requests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LatencyFilter extends OncePerRequestFilter {
+    /**
+     * A monitor of the recent latency of requests.
+     */
+    private final LatencyMonitor latencyMonitor;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param latencyMonitor a monitor of the recent latency of requests.
+     */
+    @Autowired
+    public LatencyFilter(final LatencyMonitor latencyMonitor) {
+        Assert.notNull(latencyMonitor, "Argument 'latencyMonitor' can not be null");
+
+        this.latencyMonitor = latencyMonitor;
+    }
+
+    @Override
+    protected final void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                          final FilterChain filterChain) throws ServletException, IOException {
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            latencyMonitor.record(System.nanoTime() - start);
+        }
+    }
+}
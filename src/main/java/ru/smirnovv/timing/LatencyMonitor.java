@@ -0,0 +1,68 @@
+package ru.smirnovv.timing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monitor of the recent latency of requests, kept as an exponentially weighted moving average
+ * updated without locks. Background jobs consult it to yield to the requests when they slow down.
+ * The average decays to zero when no requests were processed for a while.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+public class LatencyMonitor {
+    /**
+     * The weight of the latest request in the average.
+     */
+    private static final double WEIGHT = 0.1;
+
+    /**
+     * The time in nanoseconds without requests after which the average is considered zero.
+     */
+    private static final long STALE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The bits of the average latency in nanoseconds.
+     */
+    private final AtomicLong averageBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    /**
+     * The time in nanoseconds of the last recorded request.
+     */
+    private volatile long lastRecordNanos = System.nanoTime() - STALE_NANOS;
+
+    /**
+     * Records the latency of the processed request.
+     *
+     * @param nanos the latency of the request in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long now = System.nanoTime();
+        long bits;
+        double updated;
+        do {
+            bits = averageBits.get();
+            final double average = Double.longBitsToDouble(bits);
+            if (now - lastRecordNanos >= STALE_NANOS) {
+                updated = nanos;
+            } else {
+                updated = average + WEIGHT * (nanos - average);
+            }
+        } while (!averageBits.compareAndSet(bits, Double.doubleToLongBits(updated)));
+        lastRecordNanos = now;
+    }
+
+    /**
+     * Returns the average latency of the recent requests.
+     *
+     * @return the average latency in nanoseconds, or 0 if no requests were processed recently.
+     */
+    public long getAverageNanos() {
+        if (System.nanoTime() - lastRecordNanos >= STALE_NANOS) {
+            return 0;
+        }
+        return (long) Double.longBitsToDouble(averageBits.get());
+    }
+}
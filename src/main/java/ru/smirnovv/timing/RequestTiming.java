@@ -0,0 +1,245 @@
+package ru.smirnovv.timing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The time spent in the stages of processing the current request.
+ * An instance is bound to the thread that processes the request; all static methods
+ * do nothing when no request is being timed on the current thread.
+ */
+@SuppressWarnings("magicNumber")
+public final class RequestTiming {
+    /**
+     * The stage of the whole request in the filter chain, up to the moment the header is written.
+     */
+    public static final String FILTER = "filter";
+
+    /**
+     * The stage of a controller handling the request.
+     */
+    public static final String CONTROLLER = "controller";
+
+    /**
+     * The stage of the services called by a controller.
+     */
+    public static final String SERVICE = "service";
+
+    /**
+     * The stage of waiting for a connection from the pool.
+     */
+    public static final String POOL = "pool";
+
+    /**
+     * The stage of executing SQL statements.
+     */
+    public static final String JDBC = "jdbc";
+
+    /**
+     * The stage of writing the response body.
+     */
+    public static final String SERIALIZATION = "serialization";
+
+    /**
+     * The maximum number of SQL statements remembered per request.
+     */
+    private static final int MAX_STATEMENTS = 100;
+
+    /**
+     * The timing of the request processed by the current thread.
+     */
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The time in nanoseconds when the request started.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * The total time in nanoseconds by stage, in order of the first occurrence.
+     */
+    private final Map<String, Long> stages = new LinkedHashMap<>();
+
+    /**
+     * The start time in nanoseconds of the stages being measured.
+     */
+    private final Map<String, Long> started = new HashMap<>();
+
+    /**
+     * The executed SQL statements.
+     */
+    private final List<SqlStatement> statements = new ArrayList<>();
+
+    /**
+     * The number of executed SQL statements including those not remembered.
+     */
+    private int statementCount;
+
+    /**
+     * Constructs an instance.
+     */
+    private RequestTiming() {
+    }
+
+    /**
+     * Starts timing a request on the current thread.
+     *
+     * @return the timing of the request.
+     */
+    public static RequestTiming begin() {
+        final RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stops timing the request on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the timing of the request processed by the current thread.
+     *
+     * @return the timing of the request or null if no request is being timed.
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts measuring the stage of the current request.
+     *
+     * @param stage the name of the stage.
+     */
+    public static void start(final String stage) {
+        final RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.started.put(stage, System.nanoTime());
+        }
+    }
+
+    /**
+     * Stops measuring the stage of the current request if it was started.
+     *
+     * @param stage the name of the stage.
+     */
+    public static void stop(final String stage) {
+        final RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            final Long start = timing.started.remove(stage);
+            if (start != null) {
+                timing.add(stage, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Adds the time spent in the stage of the current request.
+     *
+     * @param stage      the name of the stage.
+     * @param startNanos the time in nanoseconds when the stage started.
+     */
+    public static void record(final String stage, final long startNanos) {
+        final RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Adds the time spent in the stage.
+     *
+     * @param stage the name of the stage.
+     * @param nanos the time in nanoseconds.
+     */
+    public void add(final String stage, final long nanos) {
+        stages.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * Registers an SQL statement executed while processing the request.
+     *
+     * @param sql the SQL of the statement.
+     * @return the registered statement.
+     */
+    SqlStatement statement(final String sql) {
+        final SqlStatement statement = new SqlStatement(sql);
+        statementCount++;
+        if (statements.size() < MAX_STATEMENTS) {
+            statements.add(statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent in the stage.
+     *
+     * @param stage the name of the stage.
+     * @return the time in nanoseconds or zero if the stage did not occur.
+     */
+    public long getNanos(final String stage) {
+        return stages.getOrDefault(stage, 0L);
+    }
+
+    /**
+     * Returns the time in nanoseconds elapsed since the request started.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Returns the executed SQL statements, at most {@value #MAX_STATEMENTS}.
+     *
+     * @return the executed SQL statements.
+     */
+    public List<SqlStatement> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Returns the number of executed SQL statements.
+     *
+     * @return the number of executed SQL statements.
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Formats the completed stages followed by the time in the filter chain
+     * as the value of the Server-Timing header.
+     *
+     * @param filterNanos the time in nanoseconds spent in the filter chain so far.
+     * @return the value of the Server-Timing header.
+     */
+    public String toServerTiming(final long filterNanos) {
+        final StringBuilder header = new StringBuilder();
+        stages.forEach((stage, nanos) -> appendStage(header, stage, nanos));
+        appendStage(header, FILTER, filterNanos);
+        return header.toString();
+    }
+
+    /**
+     * Appends the stage to the value of the Server-Timing header.
+     *
+     * @param header the value of the header.
+     * @param stage  the name of the stage.
+     * @param nanos  the time in nanoseconds spent in the stage.
+     */
+    private static void appendStage(final StringBuilder header, final String stage, final long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(stage).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.smirnovv.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * An advice that ends the controller stage, writes the Server-Timing header and starts
+ * the serialization stage right before the response body is written. The body is streamed
+ * to the client, so the time spent writing it is only reported in the log of slow requests.
+ *
+ * @see ServerTimingFilter
+ */
+@ControllerAdvice
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public final boolean supports(final MethodParameter returnType,
+                                  final Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public final Object beforeBodyWrite(final Object body, final MethodParameter returnType,
+                                        final MediaType selectedContentType,
+                                        final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                        final ServerHttpRequest request, final ServerHttpResponse response) {
+        RequestTiming.stop(RequestTiming.CONTROLLER);
+        final RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            response.getHeaders().set(ServerTimingFilter.SERVER_TIMING,
+                    timing.toServerTiming(timing.getElapsedNanos()));
+        }
+        RequestTiming.start(RequestTiming.SERIALIZATION);
+        return body;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.smirnovv.timing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A filter that times the stages of request processing, reports them in the Server-Timing
+ * response header and logs a sample of the slow requests with their SQL statements.
+ * The response body is not buffered: the header is written before the body by
+ * {@link SerializationTimingAdvice}, or by the filter for the responses without a body,
+ * and the time spent writing the body is only reported in the log.
+ */
+@SuppressWarnings("magicNumber")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    /**
+     * The name of the response header.
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * The log of slow requests.
+     */
+    private static final Logger SLOW_REQUESTS = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    /**
+     * The settings of the request stage timing.
+     */
+    private final TimingProperties properties;
+
+    /**
+     * Constructs an instance with injected dependencies.
+     *
+     * @param properties the settings of the request stage timing.
+     */
+    @Autowired
+    public ServerTimingFilter(final TimingProperties properties) {
+        Assert.notNull(properties, "Argument 'properties' can not be null");
+
+        this.properties = properties;
+    }
+
+    @Override
+    protected final boolean shouldNotFilter(final HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected final void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                          final FilterChain filterChain) throws ServletException, IOException {
+        final RequestTiming timing = RequestTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+            RequestTiming.stop(RequestTiming.SERIALIZATION);
+        } finally {
+            final long total = timing.getElapsedNanos();
+            RequestTiming.end();
+
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, timing.toServerTiming(total));
+            }
+            if (total >= properties.getSlowThreshold().toNanos()
+                    && ThreadLocalRandom.current().nextDouble() < properties.getSlowSampleRate()) {
+                logSlowRequest(request, response.getStatus(), timing, total);
+            }
+        }
+    }
+
+    /**
+     * Writes the slow request to the log.
+     *
+     * @param request the slow request.
+     * @param status  HTTP status code of the response.
+     * @param timing  the timing of the request.
+     * @param total   the total time of the request in nanoseconds.
+     */
+    private void logSlowRequest(final HttpServletRequest request, final int status, final RequestTiming timing,
+                                final long total) {
+        if (!SLOW_REQUESTS.isWarnEnabled()) {
+            return;
+        }
+        final StringBuilder message = new StringBuilder()
+                .append("Slow request ").append(request.getMethod()).append(' ').append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" statements=").append(timing.getStatementCount())
+                .append(" [").append(timing.toServerTiming(total)).append(']');
+        for (final SqlStatement statement : timing.getStatements()) {
+            message.append(System.lineSeparator()).append("    ")
+                    .append(String.format(Locale.ROOT, "%.3f", statement.getNanos() / 1e6)).append(" ms, ")
+                    .append(statement.getRows()).append(" rows: ").append(statement.getSql());
+        }
+        SLOW_REQUESTS.warn(message.toString());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.smirnovv.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * An aspect that measures the time spent in the services that manage persons.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+    /**
+     * Measures the call of a service method.
+     *
+     * @param joinPoint the called method.
+     * @return the result of the method.
+     * @throws Throwable the exception thrown by the method.
+     */
+    @Around("@within(org.springframework.stereotype.Service) && within(ru.smirnovv.person..*)")
+    public final Object time(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RequestTiming.current() == null) {
+            return joinPoint.proceed();
+        }
+        final long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTiming.record(RequestTiming.SERVICE, start);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.smirnovv.timing;
+
+/**
+ * An SQL statement executed while processing a request.
+ */
+public final class SqlStatement {
+    /**
+     * The SQL of the statement.
+     */
+    private final String sql;
+
+    /**
+     * The execution time in nanoseconds.
+     */
+    private long nanos;
+
+    /**
+     * The number of rows read or updated by the statement.
+     */
+    private long rows;
+
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param sql the SQL of the statement.
+     */
+    SqlStatement(final String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Returns the SQL of the statement.
+     *
+     * @return the SQL of the statement.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the execution time in nanoseconds.
+     *
+     * @return the execution time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns the number of rows read or updated by the statement.
+     *
+     * @return the number of rows read or updated by the statement.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Adds the execution time.
+     *
+     * @param time the execution time in nanoseconds.
+     */
+    void addNanos(final long time) {
+        this.nanos += time;
+    }
+
+    /**
+     * Adds the number of rows read or updated by the statement.
+     *
+     * @param count the number of rows.
+     */
+    void addRows(final long count) {
+        this.rows += count;
+    }
+}
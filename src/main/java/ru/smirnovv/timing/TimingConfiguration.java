@@ -0,0 +1,39 @@
+package ru.smirnovv.timing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * The configuration that plugs the request stage timing into Spring MVC and JDBC.
+ */
+@Configuration
+public class TimingConfiguration implements WebMvcConfigurer {
+    @Override
+    public final void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new ControllerTimingInterceptor());
+    }
+
+    /**
+     * Wraps the data sources to measure the time spent in JDBC.
+     *
+     * @return a post processor that wraps the data sources.
+     * @see TimingDataSource
+     */
+    @Bean
+    public static BeanPostProcessor timingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TimingDataSource)) {
+                    return new TimingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
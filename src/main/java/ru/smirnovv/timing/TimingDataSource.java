@@ -0,0 +1,266 @@
+package ru.smirnovv.timing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A data source that measures the time spent waiting for connections and executing
+ * SQL statements while a request is being timed, and counts the rows of every statement.
+ * Connections obtained outside of a timed request are returned as is.
+ */
+public class TimingDataSource extends DelegatingDataSource {
+    /**
+     * Constructs an instance with the specified properties.
+     *
+     * @param targetDataSource the data source to measure.
+     */
+    public TimingDataSource(final DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public final Connection getConnection() throws SQLException {
+        return timed(() -> super.getConnection());
+    }
+
+    @Override
+    public final Connection getConnection(final String username, final String password) throws SQLException {
+        return timed(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * Obtains a connection and wraps it if a request is being timed.
+     *
+     * @param source the source of the connection.
+     * @return the obtained connection.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static Connection timed(final ConnectionSource source) throws SQLException {
+        if (RequestTiming.current() == null) {
+            return source.get();
+        }
+        final long start = System.nanoTime();
+        final Connection connection = source.get();
+        RequestTiming.record(RequestTiming.POOL, start);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Creates a proxy that implements the interface with the handler.
+     *
+     * @param type    the interface.
+     * @param handler the handler of the invocations.
+     * @param <T>     the type of the interface.
+     * @return the proxy.
+     */
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TimingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Invokes the method on the target and rethrows the original exception.
+     * The identity of the proxy is kept, so that the proxy can be a key of a hash map.
+     *
+     * @param proxy  the proxy the method was invoked on.
+     * @param target the target of the invocation.
+     * @param method the invoked method.
+     * @param args   the arguments of the method.
+     * @return the result of the method.
+     * @throws Throwable the exception thrown by the method.
+     */
+    private static Object invoke(final Object proxy, final Object target, final Method method, final Object[] args)
+            throws Throwable {
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * A source of connections that may throw {@link SQLException}.
+     */
+    @FunctionalInterface
+    private interface ConnectionSource {
+        /**
+         * Obtains a connection.
+         *
+         * @return the obtained connection.
+         * @throws SQLException if a database access error occurs.
+         */
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * A handler that wraps the statements created by the connection.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        /**
+         * The wrapped connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Constructs an instance with the specified properties.
+         *
+         * @param connection the wrapped connection.
+         */
+        ConnectionHandler(final Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Object result = TimingDataSource.invoke(proxy, connection, method, args);
+            if (result instanceof PreparedStatement && args != null && args.length > 0) {
+                return proxy(method.getReturnType().asSubclass(Statement.class),
+                        new StatementHandler((Statement) result, (String) args[0]));
+            } else if (result instanceof Statement) {
+                return proxy(method.getReturnType().asSubclass(Statement.class),
+                        new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A handler that measures the execution of the statement.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        /**
+         * The wrapped statement.
+         */
+        private final Statement statement;
+
+        /**
+         * The SQL the statement was prepared with or null for plain statements.
+         */
+        private final String sql;
+
+        /**
+         * The last executed SQL statement.
+         */
+        private SqlStatement last;
+
+        /**
+         * Constructs an instance with the specified properties.
+         *
+         * @param statement the wrapped statement.
+         * @param sql       the SQL the statement was prepared with or null for plain statements.
+         */
+        StatementHandler(final Statement statement, final String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final RequestTiming timing = RequestTiming.current();
+            if (timing == null) {
+                return TimingDataSource.invoke(proxy, statement, method, args);
+            }
+            if (method.getName().startsWith("execute")) {
+                return execute(proxy, timing, method, args);
+            }
+            final Object result = TimingDataSource.invoke(proxy, statement, method, args);
+            if (result instanceof ResultSet && last != null) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, last));
+            }
+            return result;
+        }
+
+        /**
+         * Executes the statement and registers it in the timing of the request.
+         *
+         * @param proxy  the proxy the method was invoked on.
+         * @param timing the timing of the request.
+         * @param method the execute method.
+         * @param args   the arguments of the method.
+         * @return the result of the method.
+         * @throws Throwable the exception thrown by the method.
+         */
+        private Object execute(final Object proxy, final RequestTiming timing, final Method method,
+                               final Object[] args) throws Throwable {
+            String executed = sql;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                executed = (String) args[0];
+            }
+            last = timing.statement(executed);
+
+            final long start = System.nanoTime();
+            final Object result;
+            try {
+                result = TimingDataSource.invoke(proxy, statement, method, args);
+            } finally {
+                final long nanos = System.nanoTime() - start;
+                last.addNanos(nanos);
+                timing.add(RequestTiming.JDBC, nanos);
+            }
+
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, last));
+            } else if (result instanceof Number) {
+                last.addRows(((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (final int count : (int[]) result) {
+                    last.addRows(Math.max(count, 0));
+                }
+            } else if (result instanceof long[]) {
+                for (final long count : (long[]) result) {
+                    last.addRows(Math.max(count, 0));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A handler that counts the rows read from the result set.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        /**
+         * The wrapped result set.
+         */
+        private final ResultSet resultSet;
+
+        /**
+         * The statement that produced the result set.
+         */
+        private final SqlStatement statement;
+
+        /**
+         * Constructs an instance with the specified properties.
+         *
+         * @param resultSet the wrapped result set.
+         * @param statement the statement that produced the result set.
+         */
+        ResultSetHandler(final ResultSet resultSet, final SqlStatement statement) {
+            this.resultSet = resultSet;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Object result = TimingDataSource.invoke(proxy, resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                statement.addRows(1);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.smirnovv.timing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The settings of the request stage timing.
+ */
+@SuppressWarnings({"designForExtension", "magicNumber"})
+@Component
+@ConfigurationProperties("iris.timing")
+public class TimingProperties {
+    /**
+     * Whether the stages of requests are timed.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The processing time after which a request is considered slow.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * The fraction of slow requests written to the log, from 0 to 1.
+     */
+    private double slowSampleRate = 1.0;
+
+    /**
+     * Returns whether the stages of requests are timed.
+     *
+     * @return whether the stages of requests are timed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Updates whether the stages of requests are timed.
+     *
+     * @param enabled whether the stages of requests are timed.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the processing time after which a request is considered slow.
+     *
+     * @return the processing time after which a request is considered slow.
+     */
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * Updates the processing time after which a request is considered slow.
+     *
+     * @param slowThreshold the processing time after which a request is considered slow.
+     */
+    public void setSlowThreshold(final Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Returns the fraction of slow requests written to the log.
+     *
+     * @return the fraction of slow requests written to the log.
+     */
+    public double getSlowSampleRate() {
+        return slowSampleRate;
+    }
+
+    /**
+     * Updates the fraction of slow requests written to the log.
+     *
+     * @param slowSampleRate the fraction of slow requests written to the log.
+     */
+    public void setSlowSampleRate(final double slowSampleRate) {
+        this.slowSampleRate = slowSampleRate;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package containing classes that measure the stages of request processing.
+ */
+package ru.smirnovv.timing;
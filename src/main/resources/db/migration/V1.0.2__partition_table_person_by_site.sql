@@ -0,0 +1,24 @@
+alter table PERSON rename to PERSON_UNPARTITIONED;
+
+create table PERSON
+(
+  ID   bigint      not null,
+  SITE varchar(50) not null,
+  NAME varchar(50) not null,
+  primary key (ID, SITE)
+) partition by hash (SITE);
+
+create table PERSON_P0 partition of PERSON for values with (modulus 8, remainder 0);
+create table PERSON_P1 partition of PERSON for values with (modulus 8, remainder 1);
+create table PERSON_P2 partition of PERSON for values with (modulus 8, remainder 2);
+create table PERSON_P3 partition of PERSON for values with (modulus 8, remainder 3);
+create table PERSON_P4 partition of PERSON for values with (modulus 8, remainder 4);
+create table PERSON_P5 partition of PERSON for values with (modulus 8, remainder 5);
+create table PERSON_P6 partition of PERSON for values with (modulus 8, remainder 6);
+create table PERSON_P7 partition of PERSON for values with (modulus 8, remainder 7);
+
+insert into PERSON (ID, SITE, NAME)
+select ID, 'default', NAME
+from PERSON_UNPARTITIONED;
+
+drop table PERSON_UNPARTITIONED;
\ No newline at end of file
@@ -0,0 +1,20 @@
+create table IRIS_TEMPLATE
+(
+  ID        bigint           not null,
+  PERSON_ID bigint           not null,
+  SITE      varchar(50)      not null,
+  QUALITY   double precision not null,
+  DATA      bytea            not null,
+  primary key (ID, SITE)
+) partition by hash (SITE);
+
+create table IRIS_TEMPLATE_P0 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 0);
+create table IRIS_TEMPLATE_P1 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 1);
+create table IRIS_TEMPLATE_P2 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 2);
+create table IRIS_TEMPLATE_P3 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 3);
+create table IRIS_TEMPLATE_P4 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 4);
+create table IRIS_TEMPLATE_P5 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 5);
+create table IRIS_TEMPLATE_P6 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 6);
+create table IRIS_TEMPLATE_P7 partition of IRIS_TEMPLATE for values with (modulus 8, remainder 7);
+
+create index IRIS_TEMPLATE_PERSON_ID_IDX on IRIS_TEMPLATE (PERSON_ID);
\ No newline at end of file
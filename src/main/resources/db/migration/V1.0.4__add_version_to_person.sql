@@ -0,0 +1,3 @@
+alter table PERSON
+  add column VERSION  bigint    not null default 0,
+  add column MODIFIED timestamp not null default now();
\ No newline at end of file
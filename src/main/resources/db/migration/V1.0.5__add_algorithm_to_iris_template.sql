@@ -0,0 +1,11 @@
+alter table IRIS_TEMPLATE add column ALGORITHM integer not null default 1;
+
+create table REENCODE_JOB
+(
+  ALGORITHM      integer   not null,
+  LAST_PERSON_ID bigint    not null,
+  PROCESSED      bigint    not null,
+  FINISHED       boolean   not null,
+  UPDATED        timestamp not null,
+  primary key (ALGORITHM)
+);
\ No newline at end of file
@@ -0,0 +1 @@
+alter table IRIS_TEMPLATE add column REENCODED_TO integer;
\ No newline at end of file
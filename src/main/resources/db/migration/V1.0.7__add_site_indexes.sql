@@ -0,0 +1,3 @@
+create index PERSON_SITE_ID_IDX on PERSON (SITE, ID);
+
+create index IRIS_TEMPLATE_SITE_PERSON_ID_IDX on IRIS_TEMPLATE (SITE, PERSON_ID);
\ No newline at end of file
@@ -0,0 +1,3 @@
+alter table REENCODE_JOB add column REPLACED_PERSON_ID bigint not null default 0;
+
+create index IRIS_TEMPLATE_ALGORITHM_IDX on IRIS_TEMPLATE (ALGORITHM);
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.smirnovv.gallery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonRepository;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for {@link GalleryController}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GalleryControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Gallery gallery;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Before
+    public void deletePersons() {
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldReturnEntryOfLoadedPartition() throws Exception {
+        Person person = personRepository.save(new Person("gallery-g", "TestA"));
+        gallery.search(Collections.singleton("gallery-g"), entry -> true);
+
+        mockMvc.perform(get("/gallery/{site}/{id}", "gallery-g", person.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(is("TestA")))
+                .andExpect(jsonPath("$.templateCount").value(is(0)));
+    }
+
+    @Test
+    public void shouldNotLoadPartitionWhenLookingUpEntry() throws Exception {
+        Person person = personRepository.save(new Person("gallery-h", "TestA"));
+
+        mockMvc.perform(get("/gallery/{site}/{id}", "gallery-h", person.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(is("Site gallery-h is not loaded.")));
+
+        assertThat(gallery.partitions().stream().map(SitePartition::getSite).collect(Collectors.toList()),
+                not(hasItem("gallery-h")));
+    }
+
+    @Test
+    public void shouldNotReturnEntryWhenSiteIsInvalid() throws Exception {
+        mockMvc.perform(get("/gallery/{site}/1", "Bogus Site"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(is(400)))
+                .andExpect(jsonPath("$.message").value(
+                        is("Invalid site! The site must contain lowercase Latin characters, "
+                                + "numbers, signs '-', '_'!")));
+
+        assertThat(gallery.partitions().stream().map(SitePartition::getSite).collect(Collectors.toList()),
+                not(hasItem("Bogus Site")));
+    }
+}
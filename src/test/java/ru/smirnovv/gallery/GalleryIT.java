@@ -0,0 +1,106 @@
+package ru.smirnovv.gallery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonRepository;
+import ru.smirnovv.person.PersonService;
+import ru.smirnovv.template.IrisCode;
+import ru.smirnovv.template.IrisTemplateRepository;
+import ru.smirnovv.template.TemplateService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Integration test for {@link Gallery}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class GalleryIT {
+
+    @Autowired
+    private Gallery gallery;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private IrisTemplateRepository templateRepository;
+
+    @Before
+    public void deletePersons() {
+        templateRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldSearchOnlyRequestedSites() {
+        personService.add("gallery-a", "TestA");
+        personService.add("gallery-b", "TestB");
+        personService.add("gallery-c", "TestC");
+
+        assertThat(names(gallery.search(Arrays.asList("gallery-a", "gallery-c"), entry -> true)),
+                containsInAnyOrder("TestA", "TestC"));
+        assertThat(gallery.partitions().stream().map(SitePartition::getSite).collect(Collectors.toList()),
+                allOf(hasItems("gallery-a", "gallery-c"), not(hasItem("gallery-b"))));
+    }
+
+    @Test
+    public void shouldApplyChangesToLoadedPartition() {
+        Person personA = personService.add("gallery-d", "TestA");
+        assertThat(gallery.search(Collections.singleton("gallery-d"), entry -> true).size(), is(1));
+
+        personService.add("gallery-d", "TestB");
+        personService.update(personA.getId(), "TestC");
+        assertThat(names(gallery.search(Collections.singleton("gallery-d"), entry -> true)),
+                containsInAnyOrder("TestB", "TestC"));
+
+        personService.remove(personA.getId());
+        assertThat(names(gallery.search(Collections.singleton("gallery-d"), entry -> entry.getName().equals("TestC"))),
+                is(empty()));
+    }
+
+    @Test
+    public void shouldReportFootprintOfTemplates() {
+        Person personA = personService.add("gallery-e", "TestA");
+        gallery.search(Collections.singleton("gallery-e"), entry -> true);
+        templateService.enroll(personA.getId(), new IrisCode(new byte[256], new byte[256]), 0.5);
+        long footprint = gallery.entry("gallery-e", personA.getId()).getFootprint();
+
+        templateService.enroll(personA.getId(), new IrisCode(new byte[256], new byte[256]), 0.5);
+
+        GalleryEntry entry = gallery.entry("gallery-e", personA.getId());
+        assertThat(entry.getTemplateCount(), is(2));
+        assertThat(entry.getFootprint(), is(footprint + new IrisCode(new byte[256], new byte[256]).getFootprint()));
+        assertThat(gallery.footprint().getBytes(), greaterThanOrEqualTo(entry.getFootprint()));
+    }
+
+    private static List<String> names(final List<GalleryEntry> entries) {
+        return entries.stream().map(GalleryEntry::getName).collect(Collectors.toList());
+    }
+}
@@ -11,6 +11,12 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
 import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -18,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -59,6 +66,23 @@ public class PersonControllerIT {
                 .andExpect(jsonPath("$.content[2].name").value(is(personC.getName())));
     }
 
+    @Test
+    public void shouldReturnPersonListOfSites() throws Exception {
+        Person personA = personRepository.save(new Person("north", "TestA"));
+        personRepository.save(new Person("south", "TestB"));
+        Person personC = personRepository.save(new Person("east", "TestC"));
+
+        mockMvc.perform(get("/person")
+                .param("site", "north", "east"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.totalElements").value(is(2)))
+                .andExpect(jsonPath("$.content[0].name").value(is(personA.getName())))
+                .andExpect(jsonPath("$.content[0].site").value(is("north")))
+                .andExpect(jsonPath("$.content[1].name").value(is(personC.getName())))
+                .andExpect(jsonPath("$.content[1].site").value(is("east")));
+    }
+
     @Test
     public void shouldAddNewPerson() throws Exception {
         mockMvc.perform(put("/person")
@@ -67,7 +91,36 @@ public class PersonControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").exists())
-                .andExpect(jsonPath("$.name").value(is("Test")));
+                .andExpect(jsonPath("$.name").value(is("Test")))
+                .andExpect(jsonPath("$.site").value(is(Person.DEFAULT_SITE)));
+    }
+
+    @Test
+    public void shouldAddNewPersonAtSite() throws Exception {
+        mockMvc.perform(put("/person")
+                .param("site", "north")
+                .param("name", "Test")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.name").value(is("Test")))
+                .andExpect(jsonPath("$.site").value(is("north")));
+    }
+
+    @Test
+    public void shouldNotAddPersonWhenSiteIsInvalid() throws Exception {
+        mockMvc.perform(put("/person")
+                .param("site", "North")
+                .param("name", "Test")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.url").value(is("/person")))
+                .andExpect(jsonPath("$.status").value(is(400)))
+                .andExpect(jsonPath("$.message").value(
+                        is("Invalid site! The site must contain lowercase Latin characters, " +
+                                "numbers, signs '-', '_'!")));
     }
 
     @Test
@@ -147,6 +200,100 @@ public class PersonControllerIT {
                 .andExpect(jsonPath("$.name").value(is("TestA")));
     }
 
+    @Test
+    public void shouldReturnPersonWithETag() throws Exception {
+        Person personA = personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(get("/person/{id}", personA.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, "W/\"" + personA.getVersion() + "\""))
+                .andExpect(header().exists(LAST_MODIFIED));
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWhenPersonETagMatches() throws Exception {
+        Person personA = personRepository.save(new Person("TestA"));
+        String eTag = mockMvc.perform(get("/person/{id}", personA.getId()))
+                .andReturn().getResponse().getHeader(ETAG);
+
+        mockMvc.perform(get("/person/{id}", personA.getId())
+                .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void shouldReturnPersonWhenPersonUpdatedAfterETag() throws Exception {
+        Person personA = personRepository.save(new Person("TestA"));
+        String eTag = mockMvc.perform(get("/person/{id}", personA.getId()))
+                .andReturn().getResponse().getHeader(ETAG);
+
+        mockMvc.perform(post("/person/{id}", personA.getId())
+                .param("name", "TestB")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/person/{id}", personA.getId())
+                .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, not(eTag)))
+                .andExpect(jsonPath("$.name").value(is("TestB")));
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWhenPageETagMatches() throws Exception {
+        personRepository.save(new Person("TestA"));
+        String eTag = mockMvc.perform(get("/person"))
+                .andReturn().getResponse().getHeader(ETAG);
+
+        mockMvc.perform(get("/person")
+                .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        personRepository.save(new Person("TestB"));
+
+        mockMvc.perform(get("/person")
+                .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(is(2)));
+    }
+
+    @Test
+    public void shouldReturnPageWithoutLastModified() throws Exception {
+        personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(get("/person"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, startsWith("W/\"")))
+                .andExpect(header().doesNotExist(LAST_MODIFIED));
+    }
+
+    @Test
+    public void shouldReturnPageWhenPersonDeletedAfterLastModified() throws Exception {
+        personRepository.save(new Person("TestA"));
+        Person personB = personRepository.save(new Person("TestB"));
+        String lastModified = mockMvc.perform(get("/person/{id}", personB.getId()))
+                .andReturn().getResponse().getHeader(LAST_MODIFIED);
+
+        mockMvc.perform(delete("/person/{id}", personB.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/person")
+                .header(IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(is(1)));
+    }
+
+    @Test
+    public void shouldNotReturnPersonVersionWhenPersonNotFound() throws Exception {
+        mockMvc.perform(get("/person/10")
+                .header(IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(
+                        is("Person 10 not found.")));
+    }
+
     @Test
     public void shouldPersonNotFoundException() throws Exception {
         mockMvc.perform(get("/person/10"))
@@ -267,4 +414,15 @@ public class PersonControllerIT {
         mockMvc.perform(delete("/person/{id}", personA.getId()))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void shouldNotDeletePersonWhenPersonNotFound() throws Exception {
+        mockMvc.perform(delete("/person/10"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.url").value(is("/person/10")))
+                .andExpect(jsonPath("$.status").value(is(404)))
+                .andExpect(jsonPath("$.message").value(
+                        is("Person 10 not found.")));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package ru.smirnovv.ratelimit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for {@link RateLimitFilter}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"iris.rate-limit.capacity=2", "iris.rate-limit.refill-per-second=1",
+        "iris.rate-limit.api-keys=client-a,client-b,client-c"})
+@AutoConfigureMockMvc
+public class RateLimitFilterIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void shouldRejectRequestsWhenRateLimitExceeded() throws Exception {
+        mockMvc.perform(get("/person").header("X-API-Key", "client-a"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/person").header("X-API-Key", "client-a"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/person").header("X-API-Key", "client-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.url").value(is("/person")))
+                .andExpect(jsonPath("$.status").value(is(429)));
+    }
+
+    @Test
+    public void shouldLimitClientsSeparately() throws Exception {
+        mockMvc.perform(get("/person").header("X-API-Key", "client-b"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/person").header("X-API-Key", "client-b"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/person").header("X-API-Key", "client-c"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldLimitUnknownKeysByRemoteAddress() throws Exception {
+        mockMvc.perform(get("/person").header("X-API-Key", "unknown-1").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/person").header("X-API-Key", "unknown-2").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/person").header("X-API-Key", "unknown-3").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static RequestPostProcessor remoteAddr(final String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
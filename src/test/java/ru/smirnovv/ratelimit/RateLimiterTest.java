@@ -0,0 +1,66 @@
+package ru.smirnovv.ratelimit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link RateLimiter}.
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter rateLimiter;
+
+    private long start;
+
+    @Before
+    public void createRateLimiter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(2);
+        properties.setRefillPerSecond(1);
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        properties.setMaxClients(2);
+        rateLimiter = new RateLimiter(properties);
+        start = System.nanoTime();
+    }
+
+    @Test
+    public void shouldAllowClientAgainAfterRefill() {
+        assertThat(rateLimiter.tryAcquire("a", start), is(0L));
+        assertThat(rateLimiter.tryAcquire("a", start), is(0L));
+        assertThat(rateLimiter.tryAcquire("a", start), is(SECOND));
+
+        assertThat(rateLimiter.tryAcquire("a", start + SECOND / 2), is(SECOND / 2));
+        assertThat(rateLimiter.tryAcquire("a", start + SECOND), is(0L));
+        assertThat(rateLimiter.tryAcquire("a", start + SECOND), greaterThan(0L));
+    }
+
+    @Test
+    public void shouldEvictIdleClients() {
+        rateLimiter.tryAcquire("a", start);
+        rateLimiter.tryAcquire("b", start);
+        assertThat(rateLimiter.size(), is(2));
+
+        rateLimiter.tryAcquire("b", start + TimeUnit.MINUTES.toNanos(2));
+        assertThat(rateLimiter.size(), is(1));
+    }
+
+    @Test
+    public void shouldShareOverflowBucketWhenTooManyClients() {
+        rateLimiter.tryAcquire("a", start);
+        rateLimiter.tryAcquire("b", start);
+
+        assertThat(rateLimiter.tryAcquire("c", start), is(0L));
+        assertThat(rateLimiter.tryAcquire("d", start), is(0L));
+        assertThat(rateLimiter.tryAcquire("e", start), greaterThan(0L));
+        assertThat(rateLimiter.size(), is(2));
+    }
+}
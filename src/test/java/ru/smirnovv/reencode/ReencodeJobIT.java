@@ -0,0 +1,321 @@
+package ru.smirnovv.reencode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.smirnovv.gallery.Gallery;
+import ru.smirnovv.gallery.GalleryEntry;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonRepository;
+import ru.smirnovv.template.IrisCode;
+import ru.smirnovv.template.IrisTemplate;
+import ru.smirnovv.template.IrisTemplateRepository;
+import ru.smirnovv.template.TemplateEncoder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for {@link ReencodeJob}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"iris.reencode.enabled=false", "iris.reencode.chunk-size=2",
+        "iris.reencode.delay=0ms", "iris.reencode.backoff=100ms", "iris.template.max-per-person=2"})
+@AutoConfigureMockMvc
+public class ReencodeJobIT {
+
+    private static final String SITE = "reencode";
+
+    private static final String LATE_SITE = "reencode-late";
+
+    private static final byte[] CODE = {1, 2, 3, 4};
+
+    private static final byte[] REJECTED_CODE = {9, 9, 9, 9};
+
+    private static final byte[] FULL_MASK = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReencodeJob reencodeJob;
+
+    @Autowired
+    private Gallery gallery;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private IrisTemplateRepository templateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    @After
+    public void deletePersons() {
+        jdbcTemplate.update("delete from REENCODE_JOB");
+        templateRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldReencodeTemplatesOfPreviousAlgorithm() throws Exception {
+        Person personA = personRepository.save(new Person(SITE, "TestA"));
+        Person personB = personRepository.save(new Person(SITE, "TestB"));
+        Person personC = personRepository.save(new Person(SITE, "TestC"));
+        enrollPrevious(personA, 0.9);
+        enrollPrevious(personA, 0.8);
+        enrollPrevious(personB, 0.7);
+        gallery.search(Collections.singleton(SITE), entry -> true);
+
+        assertThat(algorithms(gallery.entry(SITE, personA.getId())), contains(1, 1));
+
+        runJob();
+
+        assertThat(templateRepository.findAll().stream().map(IrisTemplate::getAlgorithm).collect(Collectors.toList()),
+                containsInAnyOrder(2, 2, 2));
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(personA.getId()).stream()
+                .map(IrisTemplate::getQuality).collect(Collectors.toList()), contains(0.9, 0.8));
+        assertThat(algorithms(gallery.entry(SITE, personA.getId())), contains(2, 2));
+        assertThat(algorithms(gallery.entry(SITE, personB.getId())), contains(2));
+        assertThat(gallery.entry(SITE, personC.getId()).getTemplateCount(), is(0));
+        assertThat(jdbcTemplate.queryForObject("select REPLACED_PERSON_ID from REENCODE_JOB", Long.class),
+                is(personB.getId()));
+
+        mockMvc.perform(get("/template/reencode"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.algorithm").value(is(2)))
+                .andExpect(jsonPath("$.processed").value(is(3)))
+                .andExpect(jsonPath("$.pending").value(is(0)))
+                .andExpect(jsonPath("$.finished").value(is(true)))
+                .andExpect(jsonPath("$.lastPersonId").value(is(personC.getId().intValue())));
+    }
+
+    @Test
+    public void shouldKeepBestTemplatesWhenReencoding() throws Exception {
+        Person person = personRepository.save(new Person(SITE, "TestA"));
+        enrollPrevious(person, 0.9);
+        enrollPrevious(person, 0.8);
+        templateRepository.save(new IrisTemplate(person.getId(), SITE, 0.5, new IrisCode(2, CODE, FULL_MASK)));
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(person.getId()).stream()
+                .map(IrisTemplate::getQuality).collect(Collectors.toList()), contains(0.9, 0.5));
+        assertThat(templateRepository.findAll().stream().map(IrisTemplate::getAlgorithm).collect(Collectors.toList()),
+                everyItem(is(2)));
+        assertThat(reencodeJob.status().getProcessed(), is(1L));
+    }
+
+    @Test
+    public void shouldResumeFromCheckpoint() throws Exception {
+        Person personA = personRepository.save(new Person(SITE, "TestA"));
+        Person personB = personRepository.save(new Person(SITE, "TestB"));
+        enrollPrevious(personA, 0.9);
+        enrollPrevious(personB, 0.8);
+        jdbcTemplate.update("update IRIS_TEMPLATE set REENCODED_TO = 2 where PERSON_ID = ?", personA.getId());
+        jdbcTemplate.update("insert into REENCODE_JOB (ALGORITHM, LAST_PERSON_ID, PROCESSED, FINISHED, UPDATED) "
+                + "values (2, ?, 1, false, now())", personA.getId());
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(personA.getId()).size(), is(0));
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(personB.getId()).stream()
+                .map(IrisTemplate::getAlgorithm).collect(Collectors.toList()), contains(2));
+        assertThat(reencodeJob.status().getProcessed(), is(2L));
+    }
+
+    @Test
+    public void shouldNotStartWithoutTemplatesOfPreviousAlgorithm() throws Exception {
+        Person person = personRepository.save(new Person(SITE, "TestA"));
+        templateRepository.save(new IrisTemplate(person.getId(), SITE, 0.5, new IrisCode(2, CODE, FULL_MASK)));
+
+        runJob();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from REENCODE_JOB", Long.class), is(0L));
+        assertThat(reencodeJob.status().isFinished(), is(true));
+        assertThat(reencodeJob.status().getPending(), is(0L));
+    }
+
+    @Test
+    public void shouldReencodeTemplatesStoredAfterPersonWasWalked() throws Exception {
+        Person person = personRepository.save(new Person(LATE_SITE, "TestA"));
+        IrisTemplate walked = enrollPrevious(person, 0.9);
+        templateRepository.save(new IrisTemplate(person.getId(), LATE_SITE, 0.9, new IrisCode(2, CODE, FULL_MASK)));
+        jdbcTemplate.update("update IRIS_TEMPLATE set REENCODED_TO = 2 where ID = ?", walked.getId());
+        enrollPrevious(person, 0.7);
+        jdbcTemplate.update("insert into REENCODE_JOB (ALGORITHM, LAST_PERSON_ID, PROCESSED, FINISHED, UPDATED) "
+                + "values (2, ?, 1, false, now())", person.getId());
+        gallery.search(Collections.singleton(LATE_SITE), entry -> true);
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(person.getId()).stream()
+                .map(IrisTemplate::getQuality).collect(Collectors.toList()), contains(0.9, 0.7));
+        assertThat(templateRepository.findAll().stream().map(IrisTemplate::getAlgorithm).collect(Collectors.toList()),
+                everyItem(is(2)));
+        assertThat(algorithms(gallery.entry(LATE_SITE, person.getId())), contains(2, 2));
+        assertThat(reencodeJob.status().getProcessed(), is(2L));
+    }
+
+    @Test
+    public void shouldReplaceTemplatesStoredBeforeReplaceCheckpoint() throws Exception {
+        Person personA = personRepository.save(new Person(SITE, "TestA"));
+        Person personB = personRepository.save(new Person(SITE, "TestB"));
+        enrollPrevious(personA, 0.6);
+        templateRepository.save(new IrisTemplate(personB.getId(), SITE, 0.9, new IrisCode(2, CODE, FULL_MASK)));
+        jdbcTemplate.update("insert into REENCODE_JOB "
+                + "(ALGORITHM, LAST_PERSON_ID, REPLACED_PERSON_ID, PROCESSED, FINISHED, UPDATED) "
+                + "values (2, ?, ?, 1, false, now())", personB.getId(), personB.getId());
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(personA.getId()).stream()
+                .map(IrisTemplate::getAlgorithm).collect(Collectors.toList()), contains(2));
+        assertThat(reencodeJob.status().getPending(), is(0L));
+        assertThat(reencodeJob.status().isFinished(), is(true));
+    }
+
+    @Test
+    public void shouldSkipTemplatesThatCanNotBeDecoded() throws Exception {
+        Person person = personRepository.save(new Person(SITE, "TestA"));
+        enrollPrevious(person, 0.9);
+        IrisTemplate corrupted = enrollPrevious(person, 0.8);
+        jdbcTemplate.update("update IRIS_TEMPLATE set DATA = ? where ID = ?", new byte[]{1, 2}, corrupted.getId());
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(person.getId()).stream()
+                .map(IrisTemplate::getQuality).collect(Collectors.toList()), contains(0.9));
+        assertThat(templateRepository.findAll().stream().map(IrisTemplate::getAlgorithm).collect(Collectors.toList()),
+                everyItem(is(2)));
+        assertThat(reencodeJob.status().isFinished(), is(true));
+        assertThat(reencodeJob.status().getProcessed(), is(1L));
+    }
+
+    @Test
+    public void shouldSkipTemplatesThatCanNotBeReencoded() throws Exception {
+        Person person = personRepository.save(new Person(SITE, "TestA"));
+        enrollPrevious(person, 0.9);
+        templateRepository.save(new IrisTemplate(person.getId(), SITE, 0.8, new IrisCode(1, REJECTED_CODE, FULL_MASK)));
+
+        runJob();
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(person.getId()).stream()
+                .map(IrisTemplate::getQuality).collect(Collectors.toList()), contains(0.9));
+        assertThat(reencodeJob.status().isFinished(), is(true));
+        assertThat(reencodeJob.status().getProcessed(), is(1L));
+    }
+
+    @Test
+    public void shouldWaitWhileJobIsClaimedByAnotherInstance() throws Exception {
+        Person person = personRepository.save(new Person(SITE, "TestA"));
+        enrollPrevious(person, 0.9);
+        jdbcTemplate.update("insert into REENCODE_JOB (ALGORITHM, LAST_PERSON_ID, PROCESSED, FINISHED, UPDATED) "
+                + "values (2, 0, 0, false, now())");
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        Thread instance = new Thread(() -> transactionTemplate.execute(transaction -> {
+            jdbcTemplate.queryForList("select ALGORITHM from REENCODE_JOB for update");
+            claimed.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        instance.start();
+        assertThat(claimed.await(10, TimeUnit.SECONDS), is(true));
+
+        assertThat(reencodeJob.start(), is(true));
+        Thread.sleep(500);
+        assertThat(reencodeJob.status().isRunning(), is(true));
+        assertThat(reencodeJob.status().getProcessed(), is(0L));
+
+        released.countDown();
+        instance.join();
+        awaitJob();
+
+        assertThat(templateRepository.findAll().stream().map(IrisTemplate::getAlgorithm).collect(Collectors.toList()),
+                contains(2));
+        assertThat(reencodeJob.status().isFinished(), is(true));
+    }
+
+    private IrisTemplate enrollPrevious(final Person person, final double quality) {
+        return templateRepository.save(new IrisTemplate(person.getId(), person.getSite(), quality, new IrisCode(1, CODE, FULL_MASK)));
+    }
+
+    private void runJob() throws InterruptedException {
+        assertThat(reencodeJob.start(), is(true));
+        awaitJob();
+    }
+
+    private void awaitJob() throws InterruptedException {
+        for (int i = 0; i < 100 && reencodeJob.status().isRunning(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(reencodeJob.status().isRunning(), is(false));
+    }
+
+    private static List<Integer> algorithms(final GalleryEntry entry) {
+        return entry.getTemplates().stream().map(IrisCode::getAlgorithm).collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the default encoder with the encoder of the next version of the algorithm.
+     */
+    @TestConfiguration
+    static class NextAlgorithmConfiguration {
+
+        @Bean
+        @Primary
+        public TemplateEncoder nextTemplateEncoder() {
+            return new TemplateEncoder() {
+                @Override
+                public int getAlgorithm() {
+                    return 2;
+                }
+
+                @Override
+                public IrisCode reencode(final IrisCode iris) {
+                    if (Arrays.equals(iris.getCodeBytes(), REJECTED_CODE)) {
+                        throw new IllegalArgumentException("The template is rejected");
+                    }
+                    return new IrisCode(2, iris.getCodeBytes(), iris.getMaskBytes());
+                }
+            };
+        }
+    }
+}
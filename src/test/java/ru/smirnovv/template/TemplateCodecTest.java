@@ -0,0 +1,73 @@
+package ru.smirnovv.template;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link TemplateCodec}.
+ */
+public class TemplateCodecTest {
+
+    @Test
+    public void shouldDecodeEncodedTemplate() {
+        byte[] code = new byte[256];
+        new Random(42).nextBytes(code);
+        byte[] mask = new byte[256];
+        Arrays.fill(mask, 20, 200, (byte) 0xFF);
+        mask[19] = (byte) 0xF0;
+
+        byte[] data = TemplateCodec.encode(new IrisCode(code, mask));
+        IrisCode decoded = TemplateCodec.decode(data);
+
+        assertArrayEquals(code, decoded.getCodeBytes());
+        assertArrayEquals(mask, decoded.getMaskBytes());
+        assertThat(data.length, lessThan(code.length + 16));
+    }
+
+    @Test
+    public void shouldDecodeTemplateWithFullMask() {
+        byte[] code = new byte[4];
+        byte[] mask = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+
+        IrisCode decoded = TemplateCodec.decode(TemplateCodec.encode(new IrisCode(code, mask)));
+
+        assertArrayEquals(mask, decoded.getMaskBytes());
+        assertThat(decoded.usableRatio(), is(1.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnsupportedFormat() {
+        TemplateCodec.decode(new byte[]{2, 1, 0, 8});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTruncatedCode() {
+        byte[] data = TemplateCodec.encode(new IrisCode(new byte[4], new byte[4]));
+
+        TemplateCodec.decode(Arrays.copyOf(data, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTruncatedMask() {
+        byte[] data = TemplateCodec.encode(new IrisCode(new byte[4], new byte[4]));
+
+        TemplateCodec.decode(Arrays.copyOf(data, data.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTooLongCode() {
+        TemplateCodec.decode(new byte[]{1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyTemplate() {
+        TemplateCodec.decode(new byte[0]);
+    }
+}
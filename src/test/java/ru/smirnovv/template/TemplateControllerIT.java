@@ -0,0 +1,192 @@
+package ru.smirnovv.template;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonRepository;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for {@link TemplateController}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "iris.template.max-per-person=2")
+@AutoConfigureMockMvc
+public class TemplateControllerIT {
+
+    private static final String CODE = Base64.getEncoder().encodeToString(new byte[]{1, 2, 3, 4});
+
+    private static final String FULL_MASK = Base64.getEncoder().encodeToString(
+            new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+
+    private static final String HALF_MASK = Base64.getEncoder().encodeToString(
+            new byte[]{(byte) 0xFF, (byte) 0xFF, 0, 0});
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private IrisTemplateRepository templateRepository;
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Before
+    public void deletePersons() {
+        templateRepository.deleteAll();
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldEnrollTemplate() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(post("/person/{id}/template", person.getId())
+                .param("code", CODE)
+                .param("mask", HALF_MASK)
+                .param("contrast", "0.8")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].personId").value(is(person.getId().intValue())))
+                .andExpect(jsonPath("$[0].quality").value(closeTo(0.4, 1e-9)))
+                .andExpect(jsonPath("$[0].data").doesNotExist());
+    }
+
+    @Test
+    public void shouldKeepBestTemplates() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+
+        enroll(person, HALF_MASK, "0.5");
+        enroll(person, FULL_MASK, "0.9");
+        enroll(person, HALF_MASK, "0.2");
+        enroll(person, FULL_MASK, "0.6");
+
+        mockMvc.perform(get("/person/{id}/template", person.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].quality").value(closeTo(0.9, 1e-9)))
+                .andExpect(jsonPath("$[1].quality").value(closeTo(0.6, 1e-9)));
+    }
+
+    @Test
+    public void shouldNotEnrollTemplateWhenMaskLengthDiffers() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(post("/person/{id}/template", person.getId())
+                .param("code", CODE)
+                .param("mask", "AA==")
+                .param("contrast", "0.8")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.url").value(is("/person/" + person.getId() + "/template")))
+                .andExpect(jsonPath("$.status").value(is(400)))
+                .andExpect(jsonPath("$.message").value(
+                        is("Invalid template! The code and the mask must be of the same length!")));
+    }
+
+    @Test
+    public void shouldNotEnrollTemplateWhenContrastIsNotANumber() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(post("/person/{id}/template", person.getId())
+                .param("code", CODE)
+                .param("mask", FULL_MASK)
+                .param("contrast", "NaN")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(is(400)))
+                .andExpect(jsonPath("$.message").value(
+                        is("Invalid template! The contrast must be a number from 0 to 1!")));
+    }
+
+    @Test
+    public void shouldNotEnrollTemplateWhenContrastIsOutOfRange() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(post("/person/{id}/template", person.getId())
+                .param("code", CODE)
+                .param("mask", FULL_MASK)
+                .param("contrast", "1.5")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        is("Invalid template! The contrast must be a number from 0 to 1!")));
+        mockMvc.perform(get("/person/{id}/template", person.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void shouldKeepMaximumTemplatesWhenEnrolledConcurrently() throws Exception {
+        Person person = personRepository.save(new Person("TestA"));
+        IrisCode iris = new IrisCode(Base64.getDecoder().decode(CODE), Base64.getDecoder().decode(FULL_MASK));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                double contrast = 0.5 + i / 100.0;
+                futures.add(executor.submit(() -> templateService.enroll(person.getId(), iris, contrast)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(templateRepository.findByPersonIdOrderByQualityDesc(person.getId()).size(), is(2));
+    }
+
+    @Test
+    public void shouldNotEnrollTemplateWhenPersonNotFound() throws Exception {
+        mockMvc.perform(post("/person/10/template")
+                .param("code", CODE)
+                .param("mask", FULL_MASK)
+                .param("contrast", "0.8")
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(is("Person 10 not found.")));
+    }
+
+    private void enroll(final Person person, final String mask, final String contrast) throws Exception {
+        mockMvc.perform(post("/person/{id}/template", person.getId())
+                .param("code", CODE)
+                .param("mask", mask)
+                .param("contrast", contrast)
+                .contentType(APPLICATION_FORM_URLENCODED_VALUE))
+                .andExpect(status().isOk());
+    }
+}
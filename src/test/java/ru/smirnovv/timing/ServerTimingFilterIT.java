@@ -0,0 +1,67 @@
+package ru.smirnovv.timing;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.smirnovv.person.Person;
+import ru.smirnovv.person.PersonRepository;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for {@link ServerTimingFilter}.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "iris.timing.slow-threshold=0ms")
+@AutoConfigureMockMvc
+public class ServerTimingFilterIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Before
+    @After
+    public void deletePersons() {
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldReportStagesOfPersonList() throws Exception {
+        personRepository.save(new Person("TestA"));
+
+        mockMvc.perform(get("/person"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, allOf(
+                        containsString("controller;dur="),
+                        containsString("service;dur="),
+                        containsString("pool;dur="),
+                        containsString("jdbc;dur="),
+                        containsString("filter;dur="),
+                        not(containsString("serialization;dur=")))));
+    }
+
+    @Test
+    public void shouldReportStagesOfMissingPerson() throws Exception {
+        mockMvc.perform(get("/person/0"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, allOf(
+                        containsString("controller;dur="),
+                        containsString("filter;dur="))));
+    }
+}